@@ -1,7 +1,9 @@
 package de.knallisworld.aoc2024.day04;
 
 import de.knallisworld.aoc2024.support.geo.Point2D;
+import de.knallisworld.aoc2024.support.geo.grid2.ByteGrid;
 import de.knallisworld.aoc2024.support.geo.grid2.FixGrid;
+import de.knallisworld.aoc2024.support.geo.grid2.GridPattern;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.List;
@@ -9,6 +11,7 @@ import java.util.stream.IntStream;
 
 import static de.knallisworld.aoc2024.support.cli.Commons.printHeader;
 import static de.knallisworld.aoc2024.support.cli.Commons.printSolution;
+import static de.knallisworld.aoc2024.support.puzzle.InputReader.readInputByteGrid;
 import static de.knallisworld.aoc2024.support.puzzle.InputReader.readInputLines;
 
 @Log4j2
@@ -17,8 +20,8 @@ public class Day04 {
 	public static void main(String[] args) {
 		printHeader(4);
 		//printSolution(1, () -> "Word count: %d".formatted(countWordsOld(readGrid(readInputLines(4, "part1")))));
-		printSolution(1, () -> "Word count: %d".formatted(countWordsPart1(readGrid(readInputLines(4, "part1")))));
-		printSolution(2, () -> "Word count: %d".formatted(countWordsPart2(readGrid(readInputLines(4, "part1")))));
+		printSolution(1, () -> "Word count: %d".formatted(countWordsPart1(readInputByteGrid(4, "part1"))));
+		printSolution(2, () -> "Word count: %d".formatted(countWordsPart2(readInputByteGrid(4, "part1"))));
 	}
 
 	static FixGrid<Tile> readGrid(final List<String> lines) {
@@ -135,134 +138,26 @@ public class Day04 {
 		return result;
 	}
 
-	static long countWordsPart1(final FixGrid<Tile> grid) {
-
-		final var expectationVectors = List.of(
-			// right
-			List.of(
-				new Expected(Point2D.create(0, 0), Tile.X),
-				new Expected(Point2D.create(1, 0), Tile.M),
-				new Expected(Point2D.create(2, 0), Tile.A),
-				new Expected(Point2D.create(3, 0), Tile.S)
-			),
-			// left (backwards)
-			List.of(
-				new Expected(Point2D.create(0, 0), Tile.X),
-				new Expected(Point2D.create(-1, 0), Tile.M),
-				new Expected(Point2D.create(-2, 0), Tile.A),
-				new Expected(Point2D.create(-3, 0), Tile.S)
-			),
-			// down
-			List.of(
-				new Expected(Point2D.create(0, 0), Tile.X),
-				new Expected(Point2D.create(0, 1), Tile.M),
-				new Expected(Point2D.create(0, 2), Tile.A),
-				new Expected(Point2D.create(0, 3), Tile.S)
-			),
-			// up (backwards)
-			List.of(
-				new Expected(Point2D.create(0, 0), Tile.X),
-				new Expected(Point2D.create(0, -1), Tile.M),
-				new Expected(Point2D.create(0, -2), Tile.A),
-				new Expected(Point2D.create(0, -3), Tile.S)
-			),
-			// right/down
-			List.of(
-				new Expected(Point2D.create(0, 0), Tile.X),
-				new Expected(Point2D.create(1, 1), Tile.M),
-				new Expected(Point2D.create(2, 2), Tile.A),
-				new Expected(Point2D.create(3, 3), Tile.S)
-			),
-			// right/up
-			List.of(
-				new Expected(Point2D.create(0, 0), Tile.X),
-				new Expected(Point2D.create(1, -1), Tile.M),
-				new Expected(Point2D.create(2, -2), Tile.A),
-				new Expected(Point2D.create(3, -3), Tile.S)
-			),
-			// left/down
-			List.of(
-				new Expected(Point2D.create(0, 0), Tile.X),
-				new Expected(Point2D.create(-1, 1), Tile.M),
-				new Expected(Point2D.create(-2, 2), Tile.A),
-				new Expected(Point2D.create(-3, 3), Tile.S)
-			),
-			// left/up
-			List.of(
-				new Expected(Point2D.create(0, 0), Tile.X),
-				new Expected(Point2D.create(-1, -1), Tile.M),
-				new Expected(Point2D.create(-2, -2), Tile.A),
-				new Expected(Point2D.create(-3, -3), Tile.S)
+	static long countWordsPart1(final ByteGrid grid) {
+		// horizontal and diagonal, each in every direction
+		return GridPattern
+			.compileAllOrientations(
+				GridPattern.Stencil.horizontal("XMAS"),
+				GridPattern.Stencil.diagonal("XMAS")
 			)
-		);
-
-		return grid.fields()
-				   .stream()
-				   .mapToLong(field -> countWords(grid, expectationVectors, field.pos()))
-				   .sum();
+			.count(grid);
 	}
 
-	static long countWordsPart2(final FixGrid<Tile> grid) {
-
-		// of A
-		final var expectationVectors = List.of(
-			List.of(
-				// M.S
-				// .A.
-				// M.S
-				new Expected(Point2D.create(-1, -1), Tile.M),
-				new Expected(Point2D.create(1, -1), Tile.S),
-				new Expected(Point2D.create(0, 0), Tile.A),
-				new Expected(Point2D.create(-1, 1), Tile.M),
-				new Expected(Point2D.create(1, 1), Tile.S)
-			),
-			List.of(
-				// M.M
-				// .A.
-				// S.S
-				new Expected(Point2D.create(-1, -1), Tile.M),
-				new Expected(Point2D.create(1, -1), Tile.M),
-				new Expected(Point2D.create(0, 0), Tile.A),
-				new Expected(Point2D.create(-1, 1), Tile.S),
-				new Expected(Point2D.create(1, 1), Tile.S)
-			),
-			List.of(
-				// S.S
-				// .A.
-				// M.M
-				new Expected(Point2D.create(-1, -1), Tile.S),
-				new Expected(Point2D.create(1, -1), Tile.S),
-				new Expected(Point2D.create(0, 0), Tile.A),
-				new Expected(Point2D.create(-1, 1), Tile.M),
-				new Expected(Point2D.create(1, 1), Tile.M)
-			),
-			List.of(
-				// S.M
-				// .A.
-				// S.M
-				new Expected(Point2D.create(-1, -1), Tile.S),
-				new Expected(Point2D.create(1, -1), Tile.M),
-				new Expected(Point2D.create(0, 0), Tile.A),
-				new Expected(Point2D.create(-1, 1), Tile.S),
-				new Expected(Point2D.create(1, 1), Tile.M)
+	static long countWordsPart2(final ByteGrid grid) {
+		return GridPattern
+			.compileAllOrientations(
+				GridPattern.Stencil.parse(List.of(
+					"M.S",
+					".A.",
+					"M.S"
+				), '.')
 			)
-		);
-
-		return grid.fields()
-				   .stream()
-				   //.filter(field -> field.value() == Tile.X)
-				   .mapToLong(field -> countWords(grid, expectationVectors, field.pos()))
-				   .sum();
-	}
-
-	static long countWords(final FixGrid<Tile> grid, List<List<Expected>> expectationVectorRules, final Point2D<Integer> pos) {
-		return expectationVectorRules
-			.stream()
-			.filter(rule -> rule
-				.stream()
-				// resolve actual tile at grid[pos+vec]
-				.allMatch(expected -> grid.getValue(pos.add(expected.vec())).orElse(null) == expected.value()))
-			.count();
+			.count(grid);
 	}
 
 	static boolean matchXms(final FixGrid<Tile> grid,
@@ -280,8 +175,5 @@ public class Day04 {
 		X, M, A, S
 	}
 
-	record Expected(Point2D<Integer> vec, Tile value) {
-	}
-
 }
 
@@ -3,13 +3,20 @@ package de.knallisworld.aoc2024.day06;
 import de.knallisworld.aoc2024.support.geo.Point2D;
 import de.knallisworld.aoc2024.support.geo.grid2.Direction;
 import de.knallisworld.aoc2024.support.geo.grid2.FixGrid;
+import de.knallisworld.aoc2024.support.geo.grid2.JumpTable;
+import de.knallisworld.aoc2024.support.geo.grid2.ReadableGrid;
+import de.knallisworld.aoc2024.support.lang.CycleDetector;
 import de.knallisworld.aoc2024.support.puzzle.InputReader;
 import lombok.Data;
 import lombok.extern.log4j.Log4j2;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.IntStream;
 
 import static de.knallisworld.aoc2024.support.cli.Commons.printHeader;
@@ -30,30 +37,81 @@ public class Day06 {
 	}
 
 	static long countBlockingSituations(final State state) {
-		final var temp = state.copy();
-		processPatrol(temp);
-
-		return temp.visited
-				.keySet()
-				.stream()
-				.filter(candidate -> {
-					final var copy = state.copy();
-					copy.grid.setValue(candidate, Tile.BOX);
-					try {
-						processPatrol(copy);
-					} catch (final Exception e) {
-						return true;
-					}
-					return false;
-				})
-				.count();
+		final var jumps = JumpTable.of(state.grid, tile -> tile == Tile.BOX);
+		final var trials = trials(state);
+		// strided chunks, so that each worker gets long and short trials alike and reuses its scratch
+		final var chunks = Math.min(trials.size(), ForkJoinPool.getCommonPoolParallelism() * 4);
+		return IntStream.range(0, chunks)
+						.parallel()
+						.mapToLong(chunk -> {
+							final var scratch = new Scratch(jumps.getWidth() * jumps.getHeight() * 4);
+							var count = 0L;
+							for (var i = chunk; i < trials.size(); i += chunks) {
+								if (isLoop(jumps, trials.get(i), scratch)) {
+									count++;
+								}
+							}
+							return count;
+						})
+						.sum();
+	}
+
+	/**
+	 * One trial per cell of the original patrol, with the obstacle on that cell. The patrol is unchanged until the
+	 * guard would enter the cell the first time, so each trial resumes right in front of it.
+	 */
+	static List<Trial> trials(final State state) {
+		final var grid = state.grid;
+		final var seen = new BitSet(grid.size());
+		final var result = new ArrayList<Trial>();
+		var position = state.guard.position;
+		var direction = state.guard.direction;
+		seen.set(grid.index(position));
+		result.add(new Trial(grid.index(position), direction, grid.index(position)));
+		while (true) {
+			final var next = position.add(direction.offset());
+			if (!grid.hasValue(next)) {
+				return result;
+			}
+			if (grid.getValueRequired(next) == Tile.BOX) {
+				direction = direction.right();
+				continue;
+			}
+			final var index = grid.index(next);
+			if (!seen.get(index)) {
+				seen.set(index);
+				result.add(new Trial(grid.index(position), direction, index));
+			}
+			position = next;
+		}
+	}
+
+	/**
+	 * Walks from obstacle to obstacle; a loop revisits a stop in the same direction.
+	 */
+	static boolean isLoop(final JumpTable jumps, final Trial trial, final Scratch scratch) {
+		scratch.reset();
+		var index = trial.from;
+		var current = trial.direction;
+		while (true) {
+			index = jumps.jump(index, current, trial.obstacle);
+			if (index == JumpTable.EXIT) {
+				return false;
+			}
+			if (!scratch.visit(index * 4 + current.ordinal())) {
+				return true;
+			}
+			current = current.right();
+		}
 	}
 
 	static void processPatrol(final State state) {
+		// the grid does not change while walking, so the guard alone is the state
+		final var loops = CycleDetector.brent();
 		while (state.grid.hasValue(state.guard.position)) {
-			// part2 option
-			if (state.visited.get(state.guard.position) == state.guard.direction) {
-				throw new IllegalStateException("Loop detected!");
+			// the puzzle promises that the guard leaves; fail instead of spinning forever on an input that does not
+			if (loops.offer(state.grid.index(state.guard.position) * 4L + state.guard.direction.ordinal())) {
+				throw new IllegalStateException("Guard never leaves the area");
 			}
 			state.visited.put(state.guard.position, state.guard.direction);
 			var nextPosition = state.guard.position.add(state.guard.direction.offset());
@@ -95,6 +153,50 @@ public class Day06 {
 		return state;
 	}
 
+	record Trial(int from, Direction direction, int obstacle) {
+	}
+
+	/**
+	 * Stops of one walk, reused across trials by one worker; reset in O(stops).
+	 */
+	static final class Scratch {
+
+		private final long[] stops;
+		private int[] touched = new int[64];
+		private int size;
+
+		Scratch(final int keys) {
+			this.stops = new long[(keys + 63) >>> 6];
+		}
+
+		/**
+		 * @return whether the key was not visited before
+		 */
+		boolean visit(final int key) {
+			final var word = key >>> 6;
+			final var bit = 1L << key;
+			if ((stops[word] & bit) != 0) {
+				return false;
+			}
+			if (stops[word] == 0) {
+				if (size == touched.length) {
+					touched = Arrays.copyOf(touched, size * 2);
+				}
+				touched[size++] = word;
+			}
+			stops[word] |= bit;
+			return true;
+		}
+
+		void reset() {
+			for (var i = 0; i < size; i++) {
+				stops[touched[i]] = 0;
+			}
+			size = 0;
+		}
+
+	}
+
 	enum Tile {
 		EMPTY,
 		BOX
@@ -115,19 +217,11 @@ public class Day06 {
 	@Data
 	static class State {
 
-		private final FixGrid<Tile> grid;
+		// never written while walking
+		private final ReadableGrid<Tile> grid;
 		private Guard guard;
 		private final Map<Point2D<Integer>, Direction> visited = new HashMap<>();
 
-		public State copy() {
-			final var result = new State(
-					FixGrid.copy(grid)
-			);
-			result.setGuard(new Guard(guard.position, guard.direction));
-			result.visited.putAll(visited);
-			return result;
-		}
-
 	}
 
 }
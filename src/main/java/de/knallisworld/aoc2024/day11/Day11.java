@@ -1,13 +1,15 @@
 package de.knallisworld.aoc2024.day11;
 
+import de.knallisworld.aoc2024.support.lang.LongMemoization;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.*;
+import java.util.function.LongUnaryOperator;
 
 import static de.knallisworld.aoc2024.support.cli.Commons.printHeader;
 import static de.knallisworld.aoc2024.support.cli.Commons.printSolution;
+import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.recordStatsIfRequested;
 import static de.knallisworld.aoc2024.support.puzzle.InputReader.readInputFirstLine;
-import static java.lang.Long.parseLong;
 
 @Log4j2
 public class Day11 {
@@ -18,62 +20,59 @@ public class Day11 {
 		printSolution(2, () -> "Stone count: %d".formatted(solve(readInput(readInputFirstLine(11, "part1")), 75)));
 	}
 
-	record Key(long n, int round) {
-	}
+	// more than any number of rounds, so that key() is unique
+	private static final int ROUNDS = 128;
 
 	static long solve(final List<Long> stones, final int goalRounds) {
-		return solve0(new HashMap<>(), stones, goalRounds);
+		if (goalRounds >= ROUNDS) {
+			throw new IllegalArgumentException("at most %d rounds".formatted(ROUNDS - 1));
+		}
+		final var counts = LongMemoization.memoizeRecursive(
+			(self, key) -> count(self, key / ROUNDS, (int) (key % ROUNDS)),
+			recordStatsIfRequested("stone counts (%d rounds)".formatted(goalRounds))
+		);
+		return stones.stream()
+					 .mapToLong(n -> counts.applyAsLong(key(n, goalRounds)))
+					 .sum();
 	}
 
-	static long solve0(final Map<Key, Long> cache, final List<Long> stones, final int roundsLeft) {
+	/**
+	 * Stones outgrow an int, so unlike {@link LongMemoization#pack(int, int)} the stone takes all but the lowest bits.
+	 */
+	static long key(final long stone, final int roundsLeft) {
+		return Math.multiplyExact(stone, ROUNDS) + roundsLeft;
+	}
+
+	static long count(final LongUnaryOperator counts, final long n, final int roundsLeft) {
 		if (roundsLeft == 0) {
-			return stones.size();
+			return 1;
 		}
-		return stones.stream()
-					 .mapToLong(n -> {
-						 final var key = new Key(n, roundsLeft);
-						 if (n == 0) {
-							 if (cache.containsKey(key)) {
-								 return cache.get(key);
-							 }
-							 final var r = solve0(
-								 cache,
-								 List.of(1L),
-								 roundsLeft - 1
-							 );
-							 cache.put(key, r);
-							 return r;
-						 } else {
-							 final var valueStr = Long.toString(n);
-							 if (valueStr.length() % 2 == 0) {
-								 if (cache.containsKey(key)) {
-									 return cache.get(key);
-								 }
-								 final var r = solve0(
-									 cache,
-									 List.of(
-										 parseLong(valueStr.substring(0, valueStr.length() / 2)),
-										 parseLong(valueStr.substring(valueStr.length() / 2))
-									 ),
-									 roundsLeft - 1
-								 );
-								 cache.put(key, r);
-								 return r;
-							 } else {
-								 if (cache.containsKey(key)) {
-									 return cache.get(key);
-								 }
-								 final var r = solve0(
-									 cache,
-									 List.of(n * 2024),
-									 roundsLeft - 1
-								 );
-								 cache.put(key, r);
-								 return r;
-							 }
-						 }
-					 })
-					 .sum();
+		if (n == 0) {
+			return counts.applyAsLong(key(1, roundsLeft - 1));
+		}
+		final var digits = digits(n);
+		if (digits % 2 == 0) {
+			final var half = pow10(digits / 2);
+			return counts.applyAsLong(key(n / half, roundsLeft - 1)) + counts.applyAsLong(key(n % half, roundsLeft - 1));
+		}
+		return counts.applyAsLong(key(Math.multiplyExact(n, 2024), roundsLeft - 1));
+	}
+
+	private static int digits(long n) {
+		var result = 1;
+		while (n >= 10) {
+			n /= 10;
+			result++;
+		}
+		return result;
+	}
+
+	private static long pow10(final int exponent) {
+		var result = 1L;
+		for (var i = 0; i < exponent; i++) {
+			result *= 10;
+		}
+		return result;
 	}
 
 	static List<Long> readInput(final String str) {
@@ -3,14 +3,15 @@ package de.knallisworld.aoc2024.day16;
 import de.knallisworld.aoc2024.support.geo.Point2D;
 import de.knallisworld.aoc2024.support.geo.grid2.Direction;
 import de.knallisworld.aoc2024.support.geo.grid2.FixGrid;
+import de.knallisworld.aoc2024.support.geo.grid2.NeighbourTable;
+import de.knallisworld.aoc2024.support.graph.GraphSearch;
+import de.knallisworld.aoc2024.support.graph.SearchOptions;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.lang.Nullable;
 
-import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 import static de.knallisworld.aoc2024.support.cli.Commons.printHeader;
 import static de.knallisworld.aoc2024.support.cli.Commons.printSolution;
@@ -27,132 +28,59 @@ public class Day16 {
 	}
 
 	static long part1(final Input input) {
-		return bfs(input.grid, input.start, input.goal).minScore();
+		return minDistance(search(input), input.grid.index(input.goal));
 	}
 
 	static long part2(final Input input) {
-		return bfs(input.grid, input.start, input.goal)
-			.paths()
-			.stream()
-			.flatMap(Collection::stream)
-			.distinct()
-			.count();
+		final var dag = search(input);
+		final var goal = input.grid.index(input.goal);
+		final var min = minDistance(dag, goal);
+		final var targets = IntStream.range(0, 4)
+									 .map(d -> state(goal, d))
+									 .filter(s -> dag.distance(s) == min)
+									 .toArray();
+		return dag.backtrack(targets)
+				  .stream()
+				  .map(s -> s / 4)
+				  .distinct()
+				  .count();
 	}
 
-	record BfsResult(long minScore, List<List<Point2D<Integer>>> paths) {
+	/**
+	 * Lowest score reaching the goal, facing any direction.
+	 */
+	static long minDistance(final GraphSearch.PredecessorDag dag, final int goal) {
+		return IntStream.range(0, 4)
+						.mapToLong(d -> dag.distance(state(goal, d)))
+						.min()
+						.orElseThrow();
 	}
 
-	static BfsResult bfs(final FixGrid<Tile> grid, Point2D<Integer> start, Point2D<Integer> goal) {
-
-		record Item(
-			List<Point2D<Integer>> path,
-			Direction direction,
-			long costs,
-			boolean lastRotated
-		) implements Comparable<Item> {
-
-			@Override
-			public int compareTo(Item o) {
-				return Long.compare(this.costs, o.costs);
-			}
-		}
-
-		record Next(
-			Point2D<Integer> position,
-			Direction direction,
-			Point2D<Integer> test,
-			long costs,
-			boolean rotating
-		) {
-		}
-
-		final var q = new PriorityQueue<Item>();
-		q.add(new Item(List.of(start), Direction.East, 0, false));
-
-		final var visited = new HashMap<Point2D<Integer>, Long>();
-
-		final var min = new AtomicLong(Long.MAX_VALUE);
-		final var minPaths = new ArrayList<List<Point2D<Integer>>>();
-
-		while (!q.isEmpty()) {
-
-			final var current = q.poll();
-			final var currentPosition = current.path.getLast();
-
-			//renderGrid(grid, goal, position);
+	/**
+	 * A state is a tile's index combined with the facing direction.
+	 */
+	static int state(final int index, final int direction) {
+		return index * 4 + direction;
+	}
 
-			if (currentPosition.equals(goal)) {
-				//System.out.println("Found goal with costs " + current.costs);
-				if (current.costs < min.get()) {
-					//System.out.println("New minimum");
-					min.set(current.costs);
+	static GraphSearch.PredecessorDag search(final Input input) {
+		final var grid = input.grid;
+		final var neighbours = grid.neighbours();
+		final var goal = grid.index(input.goal);
+		return GraphSearch.dijkstraAll(
+			grid.size() * 4,
+			new int[]{state(grid.index(input.start), Direction.East.ordinal())},
+			(state, edges) -> {
+				final var index = state / 4;
+				final var direction = state % 4;
+				final var next = neighbours.adjacent4(index, direction);
+				if (next != NeighbourTable.NONE && grid.getValueAt(next) == Tile.EMPTY) {
+					edges.accept(state(next, direction), 1);
 				}
-				minPaths.add(current.path);
-				continue;
-			}
-
-			// abort paths with costs already exceeding the known minimum
-			if (min.get() <= current.costs) {
-				continue;
-			}
-
-			// abort paths with a known sub-path of fewer costs
-			if (visited.getOrDefault(currentPosition, Long.MAX_VALUE) < current.costs - 1000) {
-				continue;
-			}
-
-			// optimization
-			if (current.costs < visited.getOrDefault(currentPosition, Long.MAX_VALUE)) {
-				visited.put(currentPosition, current.costs);
-			}
-
-			Stream.of(
-					  new Next(
-						  currentPosition,
-						  current.direction.left(),
-						  currentPosition.add(current.direction.left().offset()),
-						  1000,
-						  true
-					  ),
-					  new Next(
-						  currentPosition,
-						  current.direction.right(),
-						  currentPosition.add(current.direction.right().offset()),
-						  1000,
-						  true
-					  ),
-					  new Next(
-						  currentPosition.add(current.direction.offset()),
-						  current.direction,
-						  currentPosition.add(current.direction.offset()),
-						  1,
-						  false
-					  )
-				  )
-				  // ignore any sub path which exceed the already known min costs
-				  .filter(next -> next.costs < min.get())
-				  // ignore double-rotating
-				  .filter(next -> !next.rotating || !current.lastRotated)
-				  // ensure visitable field
-				  .filter(next -> grid
-					  .getValue(next.test)
-					  .map(Tile.EMPTY::equals)
-					  .orElse(false)
-				  )
-				  .forEach(next -> {
-					  final var l = new ArrayList<>(current.path);
-					  if (!l.contains(next.position)) {
-						  l.add(next.position);
-					  }
-					  q.add(new Item(l, next.direction, current.costs + next.costs, next.rotating));
-				  });
-		}
-
-		//renderGrid(grid, goal, null);
-
-		return new BfsResult(
-			min.get(),
-			minPaths
+				edges.accept(state(index, (direction + 1) % 4), 1000);
+				edges.accept(state(index, (direction + 3) % 4), 1000);
+			},
+			SearchOptions.until(s -> s / 4 == goal)
 		);
 	}
 
@@ -1,11 +1,13 @@
 package de.knallisworld.aoc2024.day19;
 
+import de.knallisworld.aoc2024.support.lang.Memoization;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static de.knallisworld.aoc2024.support.cli.Commons.printHeader;
 import static de.knallisworld.aoc2024.support.cli.Commons.printSolution;
@@ -40,10 +42,16 @@ public class Day19 {
 								   .sorted(comparing(s -> s.length()))
 								   .toList();
 
+		// one virtual thread per distinct design, all started before joining any
+		final var counts = Memoization.<String, Long>memoizeVirtual(
+			desired -> findMatches(available, desired) ? countMatches(available, desired) : 0L
+		);
 		return input.desiredList()
 					.stream()
-					.filter(desired -> findMatches(available, desired))
-					.mapToLong(desired -> countMatches(available, desired))
+					.map(counts)
+					.toList()
+					.stream()
+					.mapToLong(CompletableFuture::join)
 					.sum();
 	}
 
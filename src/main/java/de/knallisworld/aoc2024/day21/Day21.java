@@ -3,18 +3,22 @@ package de.knallisworld.aoc2024.day21;
 import de.knallisworld.aoc2024.support.geo.Point2D;
 import de.knallisworld.aoc2024.support.geo.grid2.Direction;
 import de.knallisworld.aoc2024.support.geo.grid2.FixGrid;
+import de.knallisworld.aoc2024.support.lang.LongMemoization;
+import de.knallisworld.aoc2024.support.lang.MappedLongStore;
 import lombok.Data;
 import lombok.extern.log4j.Log4j2;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.function.LongUnaryOperator;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static de.knallisworld.aoc2024.support.cli.Commons.printHeader;
 import static de.knallisworld.aoc2024.support.cli.Commons.printSolution;
+import static de.knallisworld.aoc2024.support.lang.LongMemoization.high;
+import static de.knallisworld.aoc2024.support.lang.LongMemoization.low;
+import static de.knallisworld.aoc2024.support.lang.LongMemoization.pack;
+import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.recordStatsIfRequested;
 import static de.knallisworld.aoc2024.support.puzzle.InputReader.readInputLines;
 import static java.lang.Math.abs;
 import static java.util.function.Function.identity;
@@ -87,73 +91,74 @@ public class Day21 {
 	}
 
 	static long partX(final List<String> lines, final int robots) {
-		final var costCache = new HashMap<CacheKey, Long>();
+		final var devices = Stream.of(
+									  Stream.of(createNumberPd()),
+									  IntStream.range(0, robots)
+											   .mapToObj(_ -> createRobot())
+								  )
+								  .flatMap(identity())
+								  .toList();
+		final var costs = LongMemoization.memoizeRecursive(
+			(self, key) -> encodeKey(key, devices, self),
+			MappedLongStore.configured("day21-costs-%d".formatted(robots), lines),
+			recordStatsIfRequested("keypad costs (%d robots)".formatted(robots))
+		);
 		return lines
 			.stream()
 			.mapToLong(line -> {
-				final var devices = Stream.of(
-											  Stream.of(createNumberPd()),
-											  IntStream.range(0, robots)
-													   .mapToObj(_ -> createRobot())
-										  )
-										  .flatMap(identity())
-										  .toList();
 				final var number = Long.parseLong(line.substring(0, line.length() - 1));
-				final var cost = encodeKeys(decodeString(line), devices, costCache);
-				final var l = cost * number;
-				//System.out.printf("%d * %d\n", cost, number);
-				return l;
+				final var cost = encodeKeys(decodeString(line), devices.size(), costs);
+				return cost * number;
 			})
 			.sum();
 	}
 
-	record CacheKey(Tile from, Tile to, int depth) {
+	/**
+	 * Packed cache key; {@code depth} is the number of devices left, the first one is
+	 * {@code devices.get(devices.size() - depth)}.
+	 */
+	static long costKey(final Tile from, final Tile to, final int depth) {
+		return pack(depth, from.ordinal() << 4 | to.ordinal());
 	}
 
-	private static long encodeKeys(final List<Tile> keys, final List<Device> devices, final Map<CacheKey, Long> costCache) {
-		if (devices.isEmpty()) {
+	private static long encodeKeys(final List<Tile> keys, final int depth, final LongUnaryOperator costs) {
+		if (depth == 0) {
 			return keys.size();
 		}
 		var currentKey = Tile.ACTIVATE;
 		var length = 0L;
 		for (final var nextKey : keys) {
-			length += encodeKey(currentKey, nextKey, devices, costCache);
+			length += costs.applyAsLong(costKey(currentKey, nextKey, depth));
 			currentKey = nextKey;
 		}
 		return length;
 	}
 
-	private static long encodeKey(final Tile currentKey, final Tile nextKey, final List<Device> devices, final Map<CacheKey, Long> costCache) {
-		final var key = new CacheKey(currentKey, nextKey, devices.size());
-		// costCache.computeIfAbsent not possible due CME
-		return Optional
-			.ofNullable(costCache.get(key))
-			.orElseGet(() -> {
-				final var device = devices.getFirst();
-				final var from = device.positionOf(currentKey);
-				final var to = device.positionOf(nextKey);
-
-				final var dx = to.getX() - from.getX();
-				final var dy = to.getY() - from.getY();
-
-				var cost = Long.MAX_VALUE;
-				final var actionsX = (dx < 0 ? "<" : ">").repeat(abs(dx));
-				final var actionsY = (dy < 0 ? "^" : "v").repeat(abs(dy));
-				if (device.grid.getValueRequired(from.getX(), to.getY()) != Tile.EMPTY) {
-					final var actions = decodeString(
-						actionsY + actionsX + "A"
-					);
-					cost = Math.min(cost, encodeKeys(actions, devices.subList(1, devices.size()), costCache));
-				}
-				if (device.grid.getValueRequired(to.getX(), from.getY()) != Tile.EMPTY) {
-					final var actions = decodeString(
-						actionsX + actionsY + "A"
-					);
-					cost = Math.min(cost, encodeKeys(actions, devices.subList(1, devices.size()), costCache));
-				}
-				costCache.put(key, cost);
-				return cost;
-			});
+	private static long encodeKey(final long key, final List<Device> devices, final LongUnaryOperator costs) {
+		final var depth = high(key);
+		final var device = devices.get(devices.size() - depth);
+		final var from = device.positionOf(Tile.values()[low(key) >>> 4]);
+		final var to = device.positionOf(Tile.values()[low(key) & 0xF]);
+
+		final var dx = to.getX() - from.getX();
+		final var dy = to.getY() - from.getY();
+
+		var cost = Long.MAX_VALUE;
+		final var actionsX = (dx < 0 ? "<" : ">").repeat(abs(dx));
+		final var actionsY = (dy < 0 ? "^" : "v").repeat(abs(dy));
+		if (device.grid.getValueRequired(from.getX(), to.getY()) != Tile.EMPTY) {
+			final var actions = decodeString(
+				actionsY + actionsX + "A"
+			);
+			cost = Math.min(cost, encodeKeys(actions, depth - 1, costs));
+		}
+		if (device.grid.getValueRequired(to.getX(), from.getY()) != Tile.EMPTY) {
+			final var actions = decodeString(
+				actionsX + actionsY + "A"
+			);
+			cost = Math.min(cost, encodeKeys(actions, depth - 1, costs));
+		}
+		return cost;
 	}
 
 	private static Device createNumberPd() {
@@ -1,5 +1,7 @@
 package de.knallisworld.aoc2024.support.cli;
 
+import de.knallisworld.aoc2024.support.lang.Memoization;
+
 import java.io.Serializable;
 import java.util.function.Supplier;
 
@@ -20,6 +22,15 @@ public class Commons {
 		final var result = solutionGet.get();
 		final var used = System.currentTimeMillis() - started;
 		System.out.printf("🎉 Solution of part %s took %7.3fs: %s%n", part, used / 1000D, result);
+		printMemoizationStats();
+	}
+
+	/**
+	 * Prints (and drains) the stats of memoized functions recording them, see {@link Memoization#drainStats()}.
+	 */
+	public static void printMemoizationStats() {
+		Memoization.drainStats()
+				   .forEach(stats -> System.out.printf("📊 Memoization %s%n", stats.format()));
 	}
 
 	public static <T> T compileObject(final Serializable description,
@@ -0,0 +1,132 @@
+package de.knallisworld.aoc2024.support.geo;
+
+import java.util.function.LongConsumer;
+
+import static java.lang.Math.abs;
+
+/**
+ * Allocation-free 2D integer point, packed into a single {@code long}: the high 32 bits hold x, the low 32 bits
+ * hold y.
+ * <p>
+ * Intended for hot loops (walks, flood fills, searches) which would otherwise create and look up a {@link Point2D}
+ * per step; convert from/to {@link Point2D} only at the boundaries.
+ */
+public final class IntPoint {
+
+	/**
+	 * Offsets of the 4 adjacent points, same order as {@link Point2D#getAdjacents4()} (up, right, down, left).
+	 */
+	private static final int[] DX4 = {0, 1, 0, -1};
+	private static final int[] DY4 = {-1, 0, 1, 0};
+
+	/**
+	 * Offsets of the 8 adjacent points, same order as {@link Point2D#getAdjacents8()}.
+	 */
+	private static final int[] DX8 = {0, 1, 1, 1, 0, -1, -1, -1};
+	private static final int[] DY8 = {-1, -1, 0, 1, 1, 1, 0, -1};
+
+	private IntPoint() {
+	}
+
+	public static long of(final int x, final int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+	public static int x(final long p) {
+		return (int) (p >> 32);
+	}
+
+	public static int y(final long p) {
+		return (int) p;
+	}
+
+	public static long add(final long p, final int dx, final int dy) {
+		return of(x(p) + dx, y(p) + dy);
+	}
+
+	public static long add(final long a, final long b) {
+		return of(x(a) + x(b), y(a) + y(b));
+	}
+
+	public static long sub(final long a, final long b) {
+		return of(x(a) - x(b), y(a) - y(b));
+	}
+
+	public static long up(final long p) {
+		return of(x(p), y(p) - 1);
+	}
+
+	public static long right(final long p) {
+		return of(x(p) + 1, y(p));
+	}
+
+	public static long down(final long p) {
+		return of(x(p), y(p) + 1);
+	}
+
+	public static long left(final long p) {
+		return of(x(p) - 1, y(p));
+	}
+
+	/**
+	 * Horizontal offset of the given direction index (0 = up, 1 = right, 2 = down, 3 = left).
+	 */
+	public static int dx(final int direction) {
+		return DX4[direction];
+	}
+
+	/**
+	 * Vertical offset of the given direction index (0 = up, 1 = right, 2 = down, 3 = left).
+	 */
+	public static int dy(final int direction) {
+		return DY4[direction];
+	}
+
+	/**
+	 * Moves the point one step into the given direction index (0 = up, 1 = right, 2 = down, 3 = left).
+	 */
+	public static long step(final long p, final int direction) {
+		return of(x(p) + DX4[direction], y(p) + DY4[direction]);
+	}
+
+	/**
+	 * Moves the point one step into the given direction index of the 8 adjacent points (clockwise, 0 = up).
+	 */
+	public static long step8(final long p, final int direction) {
+		return of(x(p) + DX8[direction], y(p) + DY8[direction]);
+	}
+
+	public static void forEachAdjacent4(final long p, final LongConsumer consumer) {
+		final var x = x(p);
+		final var y = y(p);
+		for (var i = 0; i < 4; i++) {
+			consumer.accept(of(x + DX4[i], y + DY4[i]));
+		}
+	}
+
+	public static void forEachAdjacent8(final long p, final LongConsumer consumer) {
+		final var x = x(p);
+		final var y = y(p);
+		for (var i = 0; i < 8; i++) {
+			consumer.accept(of(x + DX8[i], y + DY8[i]));
+		}
+	}
+
+	@SuppressWarnings("SpellCheckingInspection")
+	public static long manhattenDistance(final long a, final long b) {
+		return abs((long) x(b) - x(a)) + abs((long) y(b) - y(a));
+	}
+
+	public static long fromPoint2D(final Point2D<? extends Number> p) {
+		return of(p.getX().intValue(), p.getY().intValue());
+	}
+
+	public static Point2D<Integer> toPoint2D(final long p) {
+		return Point2D.createInt(x(p), y(p));
+	}
+
+	public static String toString(final long p) {
+		return "(%d/%d)".formatted(x(p), y(p));
+	}
+
+}
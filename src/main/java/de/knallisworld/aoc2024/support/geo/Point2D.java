@@ -5,9 +5,8 @@ import lombok.EqualsAndHashCode;
 import org.springframework.lang.Nullable;
 
 import java.util.ArrayList;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -17,7 +16,7 @@ import static java.util.Objects.requireNonNullElse;
 @EqualsAndHashCode(of = {"x", "y"})
 public class Point2D<T extends Number> {
 
-	static final Map<Number, Map<Number, Point2D<?>>> CACHE = new WeakHashMap<>();
+	private static volatile Point2DCache CACHE = createCache(Point2DCacheOptions.withDefault());
 
 	static final BiFunction<Number, Integer, Number> DEFAULT_ADDER = (t, addingValue) -> {
 		if (t instanceof Integer i) {
@@ -42,8 +41,24 @@ public class Point2D<T extends Number> {
 	private static <T extends Number> Point2D<T> lookupCache(final T x,
 															 final T y,
 															 final Supplier<Point2D<T>> creator) {
-		return (Point2D<T>) CACHE.computeIfAbsent(x, _ -> new WeakHashMap<>())
-								 .computeIfAbsent(y, _ -> creator.get());
+		return CACHE.intern(x, y, creator);
+	}
+
+	private static Point2DCache createCache(final Consumer<Point2DCacheOptions.Point2DCacheOptionsBuilder> configurer) {
+		final var optionsBuilder = Point2DCacheOptions.builder();
+		configurer.accept(optionsBuilder);
+		return new Point2DCache(optionsBuilder.build());
+	}
+
+	/**
+	 * Replaces the instance cache (dropping all interned points), e.g. to disable or cap it.
+	 */
+	public static void configureCache(final Consumer<Point2DCacheOptions.Point2DCacheOptionsBuilder> configurer) {
+		CACHE = createCache(configurer);
+	}
+
+	public static Point2DCache.Stats cacheStats() {
+		return CACHE.stats();
 	}
 
 	public static <T extends Number> Point2D<T> create(
@@ -0,0 +1,161 @@
+package de.knallisworld.aoc2024.support.geo;
+
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe interning of {@link Point2D} instances.
+ * <p>
+ * The bounded mode is striped: each stripe is an access-ordered map guarded by its own lock, so concurrent lookups
+ * only contend if they hit the same stripe. The stripe capacities add up to exactly the maximum size (with fewer
+ * stripes for a maximum size below {@value #STRIPES}).
+ */
+public final class Point2DCache {
+
+	public record Stats(long hits, long misses, long evictions, long size) {
+
+		public double hitRate() {
+			final var total = hits + misses;
+			return total == 0 ? 0 : (double) hits / total;
+		}
+
+	}
+
+	private static final int STRIPES = 16;
+
+	private record Key(Number x, Number y) {
+	}
+
+	private final Point2DCacheOptions options;
+
+	private final Map<Key, Point2D<?>> unbounded;
+	private final Stripe[] stripes;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	Point2DCache(final Point2DCacheOptions options) {
+		this.options = options;
+		this.unbounded = options.getMode() == Point2DCacheOptions.Mode.UNBOUNDED ? new ConcurrentHashMap<>() : Map.of();
+		if (options.getMode() == Point2DCacheOptions.Mode.BOUNDED) {
+			final var maxSize = options.getMaxSize();
+			if (maxSize < 1) {
+				throw new IllegalArgumentException("maxSize must be greater than 0");
+			}
+			// a power of two, for masking
+			this.stripes = new Stripe[Integer.highestOneBit(Math.min(STRIPES, maxSize))];
+			// spread the remainder, so that the capacities sum up to maxSize
+			for (var i = 0; i < stripes.length; i++) {
+				stripes[i] = new Stripe(maxSize / stripes.length + (i < maxSize % stripes.length ? 1 : 0));
+			}
+		} else {
+			this.stripes = new Stripe[0];
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	<T extends Number> Point2D<T> intern(final T x, final T y, final Supplier<Point2D<T>> creator) {
+		return switch (options.getMode()) {
+			case OFF -> {
+				misses.increment();
+				yield creator.get();
+			}
+			case UNBOUNDED -> {
+				final var key = new Key(x, y);
+				final var cached = unbounded.get(key);
+				if (cached != null) {
+					hits.increment();
+					yield (Point2D<T>) cached;
+				}
+				misses.increment();
+				final var created = creator.get();
+				final var raced = unbounded.putIfAbsent(key, created);
+				yield raced != null ? (Point2D<T>) raced : created;
+			}
+			case BOUNDED -> {
+				final var key = new Key(x, y);
+				final var stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+				synchronized (stripe) {
+					final var cached = stripe.get(key);
+					if (cached != null) {
+						hits.increment();
+						yield (Point2D<T>) cached;
+					}
+					misses.increment();
+					final var created = creator.get();
+					stripe.put(key, created);
+					yield created;
+				}
+			}
+		};
+	}
+
+	public Point2DCacheOptions.Mode mode() {
+		return options.getMode();
+	}
+
+	public long size() {
+		return switch (options.getMode()) {
+			case OFF -> 0;
+			case UNBOUNDED -> unbounded.size();
+			case BOUNDED -> {
+				var result = 0L;
+				for (final var stripe : stripes) {
+					synchronized (stripe) {
+						result += stripe.size();
+					}
+				}
+				yield result;
+			}
+		};
+	}
+
+	public Stats stats() {
+		return new Stats(hits.sum(), misses.sum(), evictions.sum(), size());
+	}
+
+	private static int spread(final int h) {
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Holds (rather than extends) the map, so that it does not become serializable.
+	 */
+	private final class Stripe {
+
+		private final int capacity;
+		private final Map<Key, Point2D<?>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		Stripe(final int capacity) {
+			this.capacity = capacity;
+		}
+
+		@Nullable
+		Point2D<?> get(final Key key) {
+			return entries.get(key);
+		}
+
+		void put(final Key key, final Point2D<?> value) {
+			entries.put(key, value);
+			if (entries.size() > capacity) {
+				// least recently used first
+				final var eldest = entries.keySet().iterator();
+				eldest.next();
+				eldest.remove();
+				evictions.increment();
+			}
+		}
+
+		int size() {
+			return entries.size();
+		}
+
+	}
+
+}
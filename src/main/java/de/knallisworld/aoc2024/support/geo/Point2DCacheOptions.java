@@ -0,0 +1,68 @@
+package de.knallisworld.aoc2024.support.geo;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.function.Consumer;
+
+@Getter
+@Builder
+public class Point2DCacheOptions {
+
+	public enum Mode {
+		/**
+		 * No interning at all, every lookup creates a new instance.
+		 */
+		OFF,
+		/**
+		 * Interning with a least-recently-used eviction, capped by {@link #maxSize}.
+		 */
+		BOUNDED,
+		/**
+		 * Interning without any eviction.
+		 */
+		UNBOUNDED
+	}
+
+	/**
+	 * Interning mode.
+	 */
+	@Builder.Default
+	private Mode mode = Mode.BOUNDED;
+
+	/**
+	 * Maximum number of interned points; only used by {@link Mode#BOUNDED}.
+	 */
+	@Builder.Default
+	private int maxSize = 1 << 20;
+
+	/**
+	 * default options
+	 */
+	public static Consumer<Point2DCacheOptionsBuilder> withDefault() {
+		return o -> {
+		};
+	}
+
+	/**
+	 * Disables interning.
+	 */
+	public static Consumer<Point2DCacheOptionsBuilder> off() {
+		return o -> o.mode(Mode.OFF);
+	}
+
+	/**
+	 * Interning with a capped size.
+	 */
+	public static Consumer<Point2DCacheOptionsBuilder> bounded(final int maxSize) {
+		return o -> o.mode(Mode.BOUNDED).maxSize(maxSize);
+	}
+
+	/**
+	 * Interning without any eviction.
+	 */
+	public static Consumer<Point2DCacheOptionsBuilder> unbounded() {
+		return o -> o.mode(Mode.UNBOUNDED);
+	}
+
+}
@@ -0,0 +1,203 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Fixed-size grid of {@code byte} values, backed by one flat row-major array.
+ */
+public class ByteGrid extends PrimitiveGrid<Byte> {
+
+	/**
+	 * Entry of a decode table for bytes without a mapping.
+	 */
+	public static final int UNMAPPED = -1;
+
+	final byte[] data;
+
+	public ByteGrid(final int initialHeight, final int initialWidth) {
+		this(initialHeight, initialWidth, new byte[initialHeight * initialWidth]);
+	}
+
+	ByteGrid(final int height, final int width, final byte[] data) {
+		super(height, width);
+		if (data.length != height * width) {
+			throw new IllegalArgumentException("data length does not match the grid dimension");
+		}
+		this.data = data;
+	}
+
+	public static ByteGrid create(final int initialHeight, final int initialWidth) {
+		return new ByteGrid(initialHeight, initialWidth);
+	}
+
+	/**
+	 * Wraps the given row-major array without copying it.
+	 */
+	public static ByteGrid wrap(final int height, final int width, final byte[] data) {
+		return new ByteGrid(height, width, data);
+	}
+
+	public static ByteGrid copy(final ByteGrid from) {
+		return new ByteGrid(from.height, from.width, from.data.clone());
+	}
+
+	/**
+	 * Parses the lines as raw symbols (one byte per char).
+	 */
+	public static ByteGrid parse(final List<String> lines) {
+		return parse(lines, IntUnaryOperator.identity());
+	}
+
+	/**
+	 * Parses the lines, each char is mapped by the decoder.
+	 */
+	public static ByteGrid parse(final List<String> lines, final IntUnaryOperator decoder) {
+		final var grid = create(lines.size(), lines.getFirst().length());
+		for (var y = 0; y < lines.size(); y++) {
+			final var line = lines.get(y);
+			final var offset = y * grid.width;
+			for (var x = 0; x < grid.width; x++) {
+				grid.data[offset + x] = (byte) decoder.applyAsInt(line.charAt(x));
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Decode table (indexed by the unsigned input byte) mapping each symbol to its position in the given string.
+	 */
+	public static int[] decodeTable(final String symbols) {
+		final var table = new int[256];
+		Arrays.fill(table, UNMAPPED);
+		for (var i = 0; i < symbols.length(); i++) {
+			table[symbols.charAt(i) & 0xFF] = i;
+		}
+		return table;
+	}
+
+	/**
+	 * Decode table (indexed by the unsigned input byte) mapping each symbol to the given code.
+	 */
+	public static int[] decodeTable(final Map<Character, Integer> symbols) {
+		final var table = new int[256];
+		Arrays.fill(table, UNMAPPED);
+		symbols.forEach((symbol, code) -> table[symbol & 0xFF] = code);
+		return table;
+	}
+
+	@Override
+	public Class<Byte> type() {
+		return Byte.class;
+	}
+
+	@Override
+	Byte getBoxed(final int index) {
+		return data[index];
+	}
+
+	@Override
+	void setBoxed(final int index, final Byte value) {
+		data[index] = value;
+	}
+
+	@Override
+	boolean sameValue(final int a, final int b) {
+		return data[a] == data[b];
+	}
+
+	@Override
+	void rotate4(final int a, final int b, final int c, final int d) {
+		final var temp = data[a];
+		data[a] = data[b];
+		data[b] = data[c];
+		data[c] = data[d];
+		data[d] = temp;
+	}
+
+	/**
+	 * Unchecked accessor.
+	 */
+	public byte get(final int x, final int y) {
+		return data[y * width + x];
+	}
+
+	/**
+	 * Unchecked accessor.
+	 */
+	public byte get(final int index) {
+		return data[index];
+	}
+
+	/**
+	 * Unchecked mutator.
+	 */
+	public void set(final int x, final int y, final byte value) {
+		data[y * width + x] = value;
+	}
+
+	/**
+	 * Unchecked mutator.
+	 */
+	public void set(final int index, final byte value) {
+		data[index] = value;
+	}
+
+	/**
+	 * The backing array, not a copy.
+	 */
+	public byte[] array() {
+		return data;
+	}
+
+	public void fill(final byte value) {
+		Arrays.fill(data, value);
+	}
+
+	/**
+	 * Number of cells with the value, see {@link ByteKernels}.
+	 */
+	public int count(final byte value) {
+		return ByteKernels.instance().countEqual(data, 0, data.length, value);
+	}
+
+	/**
+	 * Number of pairs of orthogonally adjacent cells with equal values, see {@link ByteKernels}.
+	 */
+	public int countEqualAdjacentPairs() {
+		final var kernels = ByteKernels.instance();
+		var count = 0;
+		for (var y = 0; y < height; y++) {
+			count += kernels.countEqualPairs(data, y * width, y * width + 1, width - 1);
+		}
+		// each row against the next one, as one run
+		return count + kernels.countEqualPairs(data, 0, width, (height - 1) * width);
+	}
+
+	public ByteGrid sub(final Point2D<Integer> topLeft, final Point2D<Integer> bottomRight) {
+		final var region = subRegion(topLeft, bottomRight);
+		final var result = create(region[3], region[2]);
+		for (var y = 0; y < region[3]; y++) {
+			System.arraycopy(data, index(region[0], region[1] + y), result.data, y * result.width, result.width);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		final var other = (ByteGrid) o;
+		return width == other.width && Arrays.equals(data, other.data);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * width + Arrays.hashCode(data);
+	}
+
+}
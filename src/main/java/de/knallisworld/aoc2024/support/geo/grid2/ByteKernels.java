@@ -0,0 +1,66 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+/**
+ * Row kernels over byte arrays (e.g. the data of a {@link ByteGrid}).
+ * <p>
+ * The SIMD implementation needs the incubating module {@code jdk.incubator.vector} at runtime
+ * ({@code --add-modules jdk.incubator.vector}); otherwise, or if the system property {@value #PROPERTY} is
+ * {@code false}, the scalar implementation is used.
+ * <p>
+ * Masks are bit sets in a {@code long[]}: bit {@code i} is bit {@code i % 64} of word {@code i / 64}.
+ */
+public interface ByteKernels {
+
+	String PROPERTY = "aoc.vector";
+
+	/**
+	 * Number of {@code i} in {@code [from, from + length)} with {@code data[i] == value}.
+	 */
+	int countEqual(byte[] data, int from, int length, byte value);
+
+	/**
+	 * Number of {@code i} in {@code [0, length)} with {@code data[a + i] == data[b + i]}, e.g. a row compared against
+	 * itself shifted by one cell, or against the next row.
+	 */
+	int countEqualPairs(byte[] data, int a, int b, int length);
+
+	/**
+	 * Sets bit {@code i} of the mask iff {@code data[from + i] == value}, for {@code i} in {@code [0, length)}; the
+	 * other bits of the touched words are cleared.
+	 */
+	void equalMask(byte[] data, int from, int length, byte value, long[] mask);
+
+	/**
+	 * Number of {@code i} in {@code [0, length)} with {@code data[from + i] == value} whose bit is set in the mask.
+	 */
+	int countEqualMasked(byte[] data, int from, int length, byte value, long[] mask);
+
+	/**
+	 * Words needed for a mask of the given number of bits.
+	 */
+	static int maskWords(final int length) {
+		return (length + 63) >>> 6;
+	}
+
+	static ByteKernels scalar() {
+		return ScalarByteKernels.INSTANCE;
+	}
+
+	/**
+	 * @throws UnsupportedOperationException if the vector module is not available
+	 */
+	static ByteKernels vector() {
+		if (!ByteKernelsHolder.VECTOR_AVAILABLE) {
+			throw new UnsupportedOperationException("module jdk.incubator.vector not available");
+		}
+		return VectorByteKernels.INSTANCE;
+	}
+
+	/**
+	 * The SIMD implementation if available and not disabled, the scalar one otherwise.
+	 */
+	static ByteKernels instance() {
+		return ByteKernelsHolder.INSTANCE;
+	}
+
+}
@@ -0,0 +1,29 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Lazily selected {@link ByteKernels#instance()}; outside the interface, where it would be public.
+ */
+@Log4j2
+final class ByteKernelsHolder {
+
+	static final boolean VECTOR_AVAILABLE = ModuleLayer.boot()
+													   .findModule("jdk.incubator.vector")
+													   .isPresent();
+
+	static final ByteKernels INSTANCE = select();
+
+	private ByteKernelsHolder() {
+	}
+
+	private static ByteKernels select() {
+		if (VECTOR_AVAILABLE && Boolean.parseBoolean(System.getProperty(ByteKernels.PROPERTY, "true"))) {
+			log.debug("Using vectorized byte kernels");
+			return VectorByteKernels.INSTANCE;
+		}
+		log.debug("Using scalar byte kernels");
+		return ScalarByteKernels.INSTANCE;
+	}
+
+}
@@ -0,0 +1,128 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-size grid of {@code char} values, backed by one flat row-major array.
+ */
+public class CharGrid extends PrimitiveGrid<Character> {
+
+	final char[] data;
+
+	public CharGrid(final int initialHeight, final int initialWidth) {
+		super(initialHeight, initialWidth);
+		this.data = new char[initialHeight * initialWidth];
+	}
+
+	public static CharGrid create(final int initialHeight, final int initialWidth) {
+		return new CharGrid(initialHeight, initialWidth);
+	}
+
+	public static CharGrid copy(final CharGrid from) {
+		final var clone = create(from.height, from.width);
+		System.arraycopy(from.data, 0, clone.data, 0, from.data.length);
+		return clone;
+	}
+
+	public static CharGrid parse(final List<String> lines) {
+		final var grid = create(lines.size(), lines.getFirst().length());
+		for (var y = 0; y < lines.size(); y++) {
+			lines.get(y).getChars(0, grid.width, grid.data, y * grid.width);
+		}
+		return grid;
+	}
+
+	@Override
+	public Class<Character> type() {
+		return Character.class;
+	}
+
+	@Override
+	Character getBoxed(final int index) {
+		return data[index];
+	}
+
+	@Override
+	void setBoxed(final int index, final Character value) {
+		data[index] = value;
+	}
+
+	@Override
+	boolean sameValue(final int a, final int b) {
+		return data[a] == data[b];
+	}
+
+	@Override
+	void rotate4(final int a, final int b, final int c, final int d) {
+		final var temp = data[a];
+		data[a] = data[b];
+		data[b] = data[c];
+		data[c] = data[d];
+		data[d] = temp;
+	}
+
+	/**
+	 * Unchecked accessor.
+	 */
+	public char get(final int x, final int y) {
+		return data[y * width + x];
+	}
+
+	/**
+	 * Unchecked accessor.
+	 */
+	public char get(final int index) {
+		return data[index];
+	}
+
+	/**
+	 * Unchecked mutator.
+	 */
+	public void set(final int x, final int y, final char value) {
+		data[y * width + x] = value;
+	}
+
+	/**
+	 * Unchecked mutator.
+	 */
+	public void set(final int index, final char value) {
+		data[index] = value;
+	}
+
+	/**
+	 * The backing array, not a copy.
+	 */
+	public char[] array() {
+		return data;
+	}
+
+	public void fill(final char value) {
+		Arrays.fill(data, value);
+	}
+
+	public CharGrid sub(final Point2D<Integer> topLeft, final Point2D<Integer> bottomRight) {
+		final var region = subRegion(topLeft, bottomRight);
+		final var result = create(region[3], region[2]);
+		for (var y = 0; y < region[3]; y++) {
+			System.arraycopy(data, index(region[0], region[1] + y), result.data, y * result.width, result.width);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		final var other = (CharGrid) o;
+		return width == other.width && Arrays.equals(data, other.data);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * width + Arrays.hashCode(data);
+	}
+
+}
@@ -0,0 +1,275 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.IntPoint;
+import de.knallisworld.aoc2024.support.geo.Point2D;
+import de.knallisworld.aoc2024.support.lang.LongObjectHashMap;
+import org.springframework.lang.Nullable;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Unbounded sparse grid, stored as dense square tiles of {@value #TILE_SIZE}×{@value #TILE_SIZE} cells which are
+ * allocated on the first write and released when their last cell is cleared.
+ * <p>
+ * A lookup is one tile-map probe (skipped when hitting the most recently used tile again) plus an array read. Values
+ * must not be null; writing null clears the cell. Not thread-safe.
+ *
+ * @param <T> value type
+ */
+public class ChunkedGrid<T> {
+
+	static final int TILE_SHIFT = 6;
+	public static final int TILE_SIZE = 1 << TILE_SHIFT;
+	static final int TILE_MASK = TILE_SIZE - 1;
+
+	@FunctionalInterface
+	public interface CellConsumer<T> {
+
+		void accept(int x, int y, T value);
+
+	}
+
+	static final class Tile {
+
+		final int tileX;
+		final int tileY;
+		final Object[] values = new Object[TILE_SIZE * TILE_SIZE];
+		int count;
+
+		Tile(final int tileX, final int tileY) {
+			this.tileX = tileX;
+			this.tileY = tileY;
+		}
+
+		int originX() {
+			return tileX << TILE_SHIFT;
+		}
+
+		int originY() {
+			return tileY << TILE_SHIFT;
+		}
+
+	}
+
+	private final LongObjectHashMap<Tile> tiles;
+	private long size;
+
+	// the most recently used tile, lookups are strongly local in practice
+	private long lastKey;
+	@Nullable
+	private Tile lastTile;
+
+	public ChunkedGrid() {
+		this.tiles = new LongObjectHashMap<>();
+	}
+
+	public static <T> ChunkedGrid<T> empty() {
+		return new ChunkedGrid<>();
+	}
+
+	private static long tileKey(final int x, final int y) {
+		// arithmetic shift rounds towards negative infinity
+		return IntPoint.of(x >> TILE_SHIFT, y >> TILE_SHIFT);
+	}
+
+	private static int local(final int x, final int y) {
+		return ((y & TILE_MASK) << TILE_SHIFT) | (x & TILE_MASK);
+	}
+
+	@Nullable
+	private Tile tile(final int x, final int y) {
+		final var key = tileKey(x, y);
+		final var last = lastTile;
+		if (last != null && lastKey == key) {
+			return last;
+		}
+		final var tile = tiles.get(key);
+		if (tile != null) {
+			lastKey = key;
+			lastTile = tile;
+		}
+		return tile;
+	}
+
+	public boolean has(final int x, final int y) {
+		final var tile = tile(x, y);
+		return tile != null && tile.values[local(x, y)] != null;
+	}
+
+	public boolean has(final Point2D<Integer> p) {
+		return has(p.getX(), p.getY());
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T get(final int x, final int y) {
+		final var tile = tile(x, y);
+		return tile != null ? (T) tile.values[local(x, y)] : null;
+	}
+
+	public Optional<T> getValue(final int x, final int y) {
+		return Optional.ofNullable(get(x, y));
+	}
+
+	public Optional<T> getValue(final Point2D<Integer> p) {
+		return getValue(p.getX(), p.getY());
+	}
+
+	/**
+	 * @return the previous value or null
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T set(final int x, final int y, @Nullable final T value) {
+		if (value == null) {
+			return clear(x, y);
+		}
+		var tile = tile(x, y);
+		if (tile == null) {
+			tile = new Tile(x >> TILE_SHIFT, y >> TILE_SHIFT);
+			final var key = tileKey(x, y);
+			tiles.put(key, tile);
+			lastKey = key;
+			lastTile = tile;
+		}
+		final var local = local(x, y);
+		final var previous = (T) tile.values[local];
+		tile.values[local] = value;
+		if (previous == null) {
+			tile.count++;
+			size++;
+		}
+		return previous;
+	}
+
+	public void setValue(final Point2D<Integer> p, @Nullable final T value) {
+		set(p.getX(), p.getY(), value);
+	}
+
+	/**
+	 * @return the removed value or null
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T clear(final int x, final int y) {
+		final var tile = tile(x, y);
+		if (tile == null) {
+			return null;
+		}
+		final var local = local(x, y);
+		final var previous = (T) tile.values[local];
+		if (previous != null) {
+			tile.values[local] = null;
+			size--;
+			if (--tile.count == 0) {
+				tiles.remove(tileKey(x, y));
+				lastTile = null;
+			}
+		}
+		return previous;
+	}
+
+	public void clearValue(final Point2D<Integer> p) {
+		clear(p.getX(), p.getY());
+	}
+
+	/**
+	 * Number of set cells.
+	 */
+	public long size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Number of allocated tiles.
+	 */
+	public int tileCount() {
+		return tiles.size();
+	}
+
+	/**
+	 * Invokes the consumer for each set 4-neighbour (up, right, down, left) of the given cell. Cells not on a tile's
+	 * border are served from the tile directly.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEachAdjacent4(final int x, final int y, final CellConsumer<T> consumer) {
+		final var lx = x & TILE_MASK;
+		final var ly = y & TILE_MASK;
+		if (lx == 0 || lx == TILE_MASK || ly == 0 || ly == TILE_MASK) {
+			acceptIfSet(x, y - 1, consumer);
+			acceptIfSet(x + 1, y, consumer);
+			acceptIfSet(x, y + 1, consumer);
+			acceptIfSet(x - 1, y, consumer);
+			return;
+		}
+		final var tile = tile(x, y);
+		if (tile == null) {
+			return;
+		}
+		final var values = tile.values;
+		final var local = (ly << TILE_SHIFT) | lx;
+		if (values[local - TILE_SIZE] != null) {
+			consumer.accept(x, y - 1, (T) values[local - TILE_SIZE]);
+		}
+		if (values[local + 1] != null) {
+			consumer.accept(x + 1, y, (T) values[local + 1]);
+		}
+		if (values[local + TILE_SIZE] != null) {
+			consumer.accept(x, y + 1, (T) values[local + TILE_SIZE]);
+		}
+		if (values[local - 1] != null) {
+			consumer.accept(x - 1, y, (T) values[local - 1]);
+		}
+	}
+
+	private void acceptIfSet(final int x, final int y, final CellConsumer<T> consumer) {
+		final var value = get(x, y);
+		if (value != null) {
+			consumer.accept(x, y, value);
+		}
+	}
+
+	/**
+	 * Invokes the consumer for each set cell; visits only allocated tiles. The grid must not be modified meanwhile.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(final CellConsumer<T> consumer) {
+		tiles.forEach((_, tile) -> {
+			final var values = tile.values;
+			for (var i = 0; i < values.length; i++) {
+				if (values[i] != null) {
+					consumer.accept(tile.originX() + (i & TILE_MASK), tile.originY() + (i >> TILE_SHIFT), (T) values[i]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Stream of the set cells; visits only allocated tiles. The grid must not be modified while consuming it.
+	 */
+	@SuppressWarnings("unchecked")
+	public Stream<FixGrid.FieldsView.Field<T>> stream() {
+		return tiles
+			.values()
+			.flatMap(tile -> IntStream
+				.range(0, tile.values.length)
+				.filter(i -> tile.values[i] != null)
+				.mapToObj(i -> new FixGrid.FieldsView.Field<>(
+					Point2D.createInt(tile.originX() + (i & TILE_MASK), tile.originY() + (i >> TILE_SHIFT)),
+					(T) tile.values[i]
+				)));
+	}
+
+	public void clear() {
+		tiles.clear();
+		size = 0;
+		lastTile = null;
+	}
+
+}
@@ -0,0 +1,207 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.graph.UnionFind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Connected-component labeling (4-connectivity) of a whole grid in one linear pass using union-find.
+ * <p>
+ * Besides the label of each cell, it collects per component its area, perimeter, number of corners (which equals the
+ * number of straight sides of the component's outline) and bounding box. Labels are numbered in order of their first
+ * cell (row-major), starting with 0.
+ */
+public final class ComponentLabeling {
+
+	/**
+	 * Whether two adjacent cells (by linear index) belong to the same component; must be symmetric.
+	 */
+	@FunctionalInterface
+	public interface Connectivity {
+
+		boolean connected(int a, int b);
+
+	}
+
+	public record Component(int label,
+							int area,
+							int perimeter,
+							int corners,
+							int minX,
+							int minY,
+							int maxX,
+							int maxY) {
+
+		public int width() {
+			return maxX - minX + 1;
+		}
+
+		public int height() {
+			return maxY - minY + 1;
+		}
+
+	}
+
+	public record Result(IntGrid labels, List<Component> components) {
+
+		public int label(final int x, final int y) {
+			return labels.get(x, y);
+		}
+
+		public Component componentOf(final int x, final int y) {
+			return components.get(labels.get(x, y));
+		}
+
+	}
+
+	private ComponentLabeling() {
+	}
+
+	/**
+	 * Labels the components of equal values.
+	 */
+	public static Result label(final PrimitiveGrid<?> grid) {
+		return label(grid.getWidth(), grid.getHeight(), grid::sameValue);
+	}
+
+	/**
+	 * Labels the components of equal values.
+	 */
+	public static <T> Result label(final FixGrid<T> grid) {
+		return label(grid.getWidth(), grid.getHeight(), (a, b) -> Objects.equals(grid.getValueAt(a), grid.getValueAt(b)));
+	}
+
+	public static Result label(final int width, final int height, final Connectivity connectivity) {
+		final var uf = new UnionFind(width * height);
+		unionRows(uf, width, connectivity, 0, height);
+		return collect(uf, width, height);
+	}
+
+	/**
+	 * Labels the components of equal values, see {@link #labelParallel(int, int, Connectivity, int)}.
+	 */
+	public static Result labelParallel(final PrimitiveGrid<?> grid) {
+		return labelParallel(grid.getWidth(), grid.getHeight(), grid::sameValue, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Like {@link #label(int, int, Connectivity)}, but the rows are partitioned into strips which are labeled in
+	 * parallel; the strips' labels are merged along the strip borders afterward.
+	 */
+	public static Result labelParallel(final int width,
+									   final int height,
+									   final Connectivity connectivity,
+									   final int strips) {
+		final var stripHeight = Math.max(1, (height + strips - 1) / strips);
+		final var uf = new UnionFind(width * height);
+		IntStream.iterate(0, y -> y < height, y -> y + stripHeight)
+				 .parallel()
+				 .forEach(y -> unionRows(uf, width, connectivity, y, Math.min(height, y + stripHeight)));
+		for (var y = stripHeight; y < height; y += stripHeight) {
+			for (var x = 0; x < width; x++) {
+				final var index = y * width + x;
+				if (connectivity.connected(index - width, index)) {
+					uf.union(index - width, index);
+				}
+			}
+		}
+		return collect(uf, width, height);
+	}
+
+	private static void unionRows(final UnionFind uf,
+								  final int width,
+								  final Connectivity connectivity,
+								  final int fromY,
+								  final int toY) {
+		for (var y = fromY; y < toY; y++) {
+			for (var x = 0; x < width; x++) {
+				final var index = y * width + x;
+				if (x > 0 && connectivity.connected(index - 1, index)) {
+					uf.union(index - 1, index);
+				}
+				if (y > fromY && connectivity.connected(index - width, index)) {
+					uf.union(index - width, index);
+				}
+			}
+		}
+	}
+
+	private static Result collect(final UnionFind uf, final int width, final int height) {
+		final var labels = IntGrid.create(height, width);
+		final var data = labels.data;
+		final var rootLabels = new int[data.length];
+		Arrays.fill(rootLabels, -1);
+		var count = 0;
+		for (var i = 0; i < data.length; i++) {
+			final var root = uf.find(i);
+			if (rootLabels[root] < 0) {
+				rootLabels[root] = count++;
+			}
+			data[i] = rootLabels[root];
+		}
+
+		final var area = new int[count];
+		final var perimeter = new int[count];
+		final var corners = new int[count];
+		final var minX = new int[count];
+		final var minY = new int[count];
+		final var maxX = new int[count];
+		final var maxY = new int[count];
+		Arrays.fill(minX, Integer.MAX_VALUE);
+		Arrays.fill(minY, Integer.MAX_VALUE);
+
+		for (var y = 0; y < height; y++) {
+			for (var x = 0; x < width; x++) {
+				final var l = data[y * width + x];
+				area[l]++;
+				minX[l] = Math.min(minX[l], x);
+				minY[l] = Math.min(minY[l], y);
+				maxX[l] = Math.max(maxX[l], x);
+				maxY[l] = Math.max(maxY[l], y);
+				final var up = same(data, width, height, x, y - 1, l);
+				final var right = same(data, width, height, x + 1, y, l);
+				final var down = same(data, width, height, x, y + 1, l);
+				final var left = same(data, width, height, x - 1, y, l);
+				perimeter[l] += (up ? 0 : 1) + (right ? 0 : 1) + (down ? 0 : 1) + (left ? 0 : 1);
+				corners[l] += corner(up, right, same(data, width, height, x + 1, y - 1, l))
+					+ corner(right, down, same(data, width, height, x + 1, y + 1, l))
+					+ corner(down, left, same(data, width, height, x - 1, y + 1, l))
+					+ corner(left, up, same(data, width, height, x - 1, y - 1, l));
+			}
+		}
+
+		final var components = new ArrayList<Component>(count);
+		for (var l = 0; l < count; l++) {
+			components.add(new Component(l, area[l], perimeter[l], corners[l], minX[l], minY[l], maxX[l], maxY[l]));
+		}
+		return new Result(labels, List.copyOf(components));
+	}
+
+	private static boolean same(final int[] labels,
+								final int width,
+								final int height,
+								final int x,
+								final int y,
+								final int label) {
+		return 0 <= x && x < width && 0 <= y && y < height && labels[y * width + x] == label;
+	}
+
+	/**
+	 * A cell's corner between two orthogonal sides is either convex (both sides outside) or concave (both sides
+	 * inside, but the diagonal outside).
+	 */
+	private static int corner(final boolean sideA, final boolean sideB, final boolean diagonal) {
+		if (!sideA && !sideB) {
+			return 1;
+		}
+		if (sideA && sideB && !diagonal) {
+			return 1;
+		}
+		return 0;
+	}
+
+}
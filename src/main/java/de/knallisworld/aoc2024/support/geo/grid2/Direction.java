@@ -1,5 +1,6 @@
 package de.knallisworld.aoc2024.support.geo.grid2;
 
+import de.knallisworld.aoc2024.support.geo.IntPoint;
 import de.knallisworld.aoc2024.support.geo.Point2D;
 
 public enum Direction {
@@ -19,6 +20,21 @@ public enum Direction {
 		return offset;
 	}
 
+	public int dx() {
+		return IntPoint.dx(ordinal());
+	}
+
+	public int dy() {
+		return IntPoint.dy(ordinal());
+	}
+
+	/**
+	 * Moves the packed point (see {@link IntPoint}) one step into this direction.
+	 */
+	public long move(final long p) {
+		return IntPoint.step(p, ordinal());
+	}
+
 	public Direction left() {
 		return switch (this) {
 			case North -> West;
@@ -0,0 +1,246 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.graph.PrimitiveHeap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Distances of every cell of a row-major grid to the nearest of one or more sources, moving in 4 directions over
+ * passable cells only.
+ * <p>
+ * Fields are immutable once computed, so they can be shared across queries (and threads).
+ */
+public final class DistanceField {
+
+	public static final int UNREACHED = -1;
+
+	/**
+	 * Cell pair visited by {@link #forEachWithin(int, int, PairConsumer)}.
+	 */
+	@FunctionalInterface
+	public interface PairConsumer {
+
+		void accept(int other, int manhattanDistance);
+
+	}
+
+	private final int width;
+	private final int height;
+	private final int[] distances;
+
+	private DistanceField(final int width, final int height, final int[] distances) {
+		this.width = width;
+		this.height = height;
+		this.distances = distances;
+	}
+
+	/**
+	 * Breadth-first distances, each step costs 1.
+	 *
+	 * @param passable whether a cell (by index) can be entered
+	 * @param sources  the indices of the sources
+	 */
+	public static DistanceField bfs(final int width,
+									final int height,
+									final IntPredicate passable,
+									final int... sources) {
+		final var distances = new int[width * height];
+		Arrays.fill(distances, UNREACHED);
+		final var queue = new int[distances.length];
+		var tail = 0;
+		for (final var source : sources) {
+			if (distances[source] == UNREACHED) {
+				distances[source] = 0;
+				queue[tail++] = source;
+			}
+		}
+		var head = 0;
+		while (head < tail) {
+			final var index = queue[head++];
+			final var x = index % width;
+			final var next = distances[index] + 1;
+			if (index >= width) {
+				tail = visit(distances, queue, tail, passable, index - width, next);
+			}
+			if (x < width - 1) {
+				tail = visit(distances, queue, tail, passable, index + 1, next);
+			}
+			if (index + width < distances.length) {
+				tail = visit(distances, queue, tail, passable, index + width, next);
+			}
+			if (x > 0) {
+				tail = visit(distances, queue, tail, passable, index - 1, next);
+			}
+		}
+		return new DistanceField(width, height, distances);
+	}
+
+	private static int visit(final int[] distances,
+							 final int[] queue,
+							 final int tail,
+							 final IntPredicate passable,
+							 final int index,
+							 final int distance) {
+		if (distances[index] != UNREACHED || !passable.test(index)) {
+			return tail;
+		}
+		distances[index] = distance;
+		queue[tail] = index;
+		return tail + 1;
+	}
+
+	public static DistanceField bfs(final PrimitiveGrid<?> grid, final IntPredicate passable, final int... sources) {
+		return bfs(grid.getWidth(), grid.getHeight(), passable, sources);
+	}
+
+	public static DistanceField bfs(final FixGrid<?> grid, final IntPredicate passable, final int... sources) {
+		return bfs(grid.getWidth(), grid.getHeight(), passable, sources);
+	}
+
+	/**
+	 * Weighted distances, entering a cell costs {@code cost.applyAsInt(index)} (at least 0).
+	 */
+	public static DistanceField dijkstra(final int width,
+										 final int height,
+										 final IntPredicate passable,
+										 final IntUnaryOperator cost,
+										 final int... sources) {
+		final var distances = new int[width * height];
+		Arrays.fill(distances, UNREACHED);
+		final var heap = new PrimitiveHeap();
+		for (final var source : sources) {
+			distances[source] = 0;
+			heap.add(0, source);
+		}
+		while (!heap.isEmpty()) {
+			final var distance = heap.peekPriority();
+			final var index = (int) heap.poll();
+			if (distance > distances[index]) {
+				// stale entry
+				continue;
+			}
+			final var x = index % width;
+			for (var d = 0; d < 4; d++) {
+				final int next;
+				switch (d) {
+					case 0 -> next = index >= width ? index - width : NeighbourTable.NONE;
+					case 1 -> next = x < width - 1 ? index + 1 : NeighbourTable.NONE;
+					case 2 -> next = index + width < distances.length ? index + width : NeighbourTable.NONE;
+					default -> next = x > 0 ? index - 1 : NeighbourTable.NONE;
+				}
+				if (next == NeighbourTable.NONE || !passable.test(next)) {
+					continue;
+				}
+				final var nd = Math.toIntExact(distance + cost.applyAsInt(next));
+				if (distances[next] == UNREACHED || nd < distances[next]) {
+					distances[next] = nd;
+					heap.add(nd, next);
+				}
+			}
+		}
+		return new DistanceField(width, height, distances);
+	}
+
+	/**
+	 * Computes one field per source set in parallel; the predicate must be safe for concurrent use.
+	 */
+	public static List<DistanceField> bfsAll(final int width,
+											 final int height,
+											 final IntPredicate passable,
+											 final int[]... sources) {
+		return Stream.of(sources)
+					 .parallel()
+					 .map(s -> bfs(width, height, passable, s))
+					 .toList();
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Distance of the cell, {@link #UNREACHED} if not reachable from any source.
+	 */
+	public int get(final int index) {
+		return distances[index];
+	}
+
+	public int get(final int x, final int y) {
+		return distances[y * width + x];
+	}
+
+	public boolean reached(final int index) {
+		return distances[index] != UNREACHED;
+	}
+
+	/**
+	 * Invokes the consumer for every other cell within the given Manhattan radius that is inside the grid (regardless
+	 * of being reached).
+	 */
+	public void forEachWithin(final int index, final int radius, final PairConsumer consumer) {
+		final var x = index % width;
+		final var y = index / width;
+		for (var dy = Math.max(-radius, -y); dy <= Math.min(radius, height - 1 - y); dy++) {
+			final var rest = radius - Math.abs(dy);
+			final var row = (y + dy) * width;
+			for (var dx = Math.max(-rest, -x); dx <= Math.min(rest, width - 1 - x); dx++) {
+				if (dx != 0 || dy != 0) {
+					consumer.accept(row + x + dx, Math.abs(dx) + Math.abs(dy));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Counts the shortcuts between reached cells: jumping from {@code a} to {@code b} (at most {@code maxJump} apart,
+	 * costing their Manhattan distance) instead of walking saves at least {@code minSaving} on the way from the sources
+	 * of {@code fromStart} to the sources of {@code toGoal}.
+	 */
+	public static long countShortcuts(final DistanceField fromStart,
+									  final DistanceField toGoal,
+									  final int maxJump,
+									  final int minSaving) {
+		final var total = shortest(fromStart, toGoal);
+		if (total == UNREACHED) {
+			return 0;
+		}
+		final var count = new long[1];
+		for (var a = 0; a < fromStart.distances.length; a++) {
+			final var before = fromStart.distances[a];
+			if (before == UNREACHED || toGoal.distances[a] == UNREACHED) {
+				continue;
+			}
+			fromStart.forEachWithin(a, maxJump, (b, jump) -> {
+				final var after = toGoal.distances[b];
+				if (after != UNREACHED && total - (before + jump + after) >= minSaving) {
+					count[0]++;
+				}
+			});
+		}
+		return count[0];
+	}
+
+	/**
+	 * Length of the shortest way between the sources of both fields, {@link #UNREACHED} if there is none.
+	 */
+	public static int shortest(final DistanceField fromStart, final DistanceField toGoal) {
+		var result = UNREACHED;
+		for (var i = 0; i < fromStart.distances.length; i++) {
+			final var a = fromStart.distances[i];
+			final var b = toGoal.distances[i];
+			if (a != UNREACHED && b != UNREACHED && (result == UNREACHED || a + b < result)) {
+				result = a + b;
+			}
+		}
+		return result;
+	}
+
+}
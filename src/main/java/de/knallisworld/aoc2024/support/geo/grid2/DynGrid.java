@@ -1,6 +1,9 @@
 package de.knallisworld.aoc2024.support.geo.grid2;
 
+import de.knallisworld.aoc2024.support.geo.IntPoint;
 import de.knallisworld.aoc2024.support.geo.Point2D;
+import de.knallisworld.aoc2024.support.lang.LongObjectHashMap;
+import org.springframework.lang.Nullable;
 
 import java.util.*;
 import java.util.function.BiFunction;
@@ -9,97 +12,147 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
-import static java.util.Comparator.comparing;
 import static java.util.Objects.requireNonNull;
-import static java.util.function.Predicate.not;
 
+/**
+ * Sparse grid, keyed by the packed coordinates (see {@link IntPoint}) in an open-addressing table; coordinates must
+ * fit into an {@code int}.
+ * <p>
+ * The bounding box is tracked incrementally, so {@link #minX()} and friends are O(1) (a removal on the border
+ * triggers one lazy rescan).
+ */
 public class DynGrid<P extends Number, T> {
 
-	final Map<Point2D<P>, T> data;
+	final LongObjectHashMap<FieldsView.Field<P, T>> data;
 
-	final Set<P> validX;
-	final Set<P> validY;
+	// points on the border of the bounding box
+	@Nullable
+	private Point2D<P> minXPoint;
+	@Nullable
+	private Point2D<P> maxXPoint;
+	@Nullable
+	private Point2D<P> minYPoint;
+	@Nullable
+	private Point2D<P> maxYPoint;
+	private boolean boundsDirty;
 
 	public static <P extends Number, T> DynGrid<P, T> empty() {
-		return new DynGrid<>(new HashMap<>());
+		return new DynGrid<>(new LongObjectHashMap<>());
 	}
 
+	/**
+	 * Grid of a copy of the fields; later changes of the map are not reflected (same as {@link #copyOf(Map)}).
+	 */
 	public static <P extends Number, T> DynGrid<P, T> of(final Map<Point2D<P>, T> data) {
 		return new DynGrid<>(data);
 	}
 
 	public static <P extends Number, T> DynGrid<P, T> copyOf(final Map<Point2D<P>, T> data) {
-		return new DynGrid<>(new HashMap<>(data));
+		return new DynGrid<>(data);
 	}
 
+	/**
+	 * Grid of a copy of the fields.
+	 */
 	public DynGrid(final Map<Point2D<P>, T> data) {
+		this(table(data));
+	}
+
+	private static <P extends Number, T> LongObjectHashMap<FieldsView.Field<P, T>> table(final Map<Point2D<P>, T> data) {
+		final var result = new LongObjectHashMap<FieldsView.Field<P, T>>(data.size());
+		data.forEach((p, value) -> result.put(key(p), new FieldsView.Field<>(p, value)));
+		return result;
+	}
+
+	private DynGrid(final LongObjectHashMap<FieldsView.Field<P, T>> data) {
 		this.data = data;
-		this.validX = new HashSet<>();
-		this.validY = new HashSet<>();
-		data.keySet()
-			.forEach(p0 -> {
-				validX.add(p0.getX());
-				validY.add(p0.getX());
-			});
+		this.boundsDirty = !data.isEmpty();
+	}
+
+	static long key(final Point2D<?> p) {
+		return key(p.getX(), p.getY());
+	}
+
+	static long key(final Number x, final Number y) {
+		return IntPoint.of(Math.toIntExact(x.longValue()), Math.toIntExact(y.longValue()));
 	}
 
 	public boolean has(final Point2D<P> p) {
-		if (!validX.contains(p.getX())) {
-			return false;
-		}
-		if (!validY.contains(p.getY())) {
-			return false;
-		}
-		return data.containsKey(p);
+		return data.containsKey(key(p));
 	}
 
 	public boolean has(final P x, final P y) {
-		if (!validX.contains(x)) {
-			return false;
-		}
-		if (!validY.contains(y)) {
-			return false;
-		}
-		return has(Point2D.create(x, y));
+		return data.containsKey(key(x, y));
 	}
 
 	public void setValue(final Point2D<P> p,
 						 final T value) {
-		data.put(p, value);
-		validX.add(p.getX());
-		validY.add(p.getY());
+		final var previous = data.put(key(p), new FieldsView.Field<>(p, value));
+		if (previous == null && !boundsDirty) {
+			extendBounds(p);
+		}
 	}
 
 	public void clearValue(final Point2D<P> p) {
-		data.remove(p);
-		validX.clear();
-		validY.clear();
-		data.keySet()
-			.forEach(p0 -> {
-				validX.add(p0.getX());
-				validY.add(p0.getX());
-			});
+		if (data.remove(key(p)) != null && !boundsDirty) {
+			final var x = p.getX().longValue();
+			final var y = p.getY().longValue();
+			if (x == requireNonNull(minXPoint).getX().longValue()
+				|| x == requireNonNull(maxXPoint).getX().longValue()
+				|| y == requireNonNull(minYPoint).getY().longValue()
+				|| y == requireNonNull(maxYPoint).getY().longValue()) {
+				boundsDirty = true;
+			}
+		}
+	}
+
+	private void extendBounds(final Point2D<P> p) {
+		final var x = p.getX().longValue();
+		final var y = p.getY().longValue();
+		if (minXPoint == null || x < minXPoint.getX().longValue()) {
+			minXPoint = p;
+		}
+		if (maxXPoint == null || x > requireNonNull(maxXPoint).getX().longValue()) {
+			maxXPoint = p;
+		}
+		if (minYPoint == null || y < minYPoint.getY().longValue()) {
+			minYPoint = p;
+		}
+		if (maxYPoint == null || y > requireNonNull(maxYPoint).getY().longValue()) {
+			maxYPoint = p;
+		}
+	}
+
+	private void ensureBounds() {
+		if (data.isEmpty()) {
+			throw new NoSuchElementException("grid is empty");
+		}
+		if (boundsDirty) {
+			minXPoint = null;
+			maxXPoint = null;
+			minYPoint = null;
+			maxYPoint = null;
+			data.forEach((_, f) -> extendBounds(f.position()));
+			boundsDirty = false;
+		}
 	}
 
 	public T getValueRequired(final Point2D<P> p) {
-		if (!has(p)) {
+		final var field = data.get(key(p));
+		if (field == null) {
 			throw new NullPointerException();
 		}
-		return requireNonNull(data.get(p));
+		return requireNonNull(field.value());
 	}
 
 	public Optional<T> getValue(final Point2D<P> p) {
-		if (!has(p)) {
-			return Optional.empty();
-		}
-		return Optional.ofNullable(data.get(p));
+		return Optional.ofNullable(data.get(key(p)))
+					   .map(FieldsView.Field::value);
 	}
 
 	public Optional<T> getValue(final P x, final P y) {
-		if (!has(x, y)) {
-			return Optional.empty();
-		}
-		return getValue(Point2D.create(x, y));
+		return Optional.ofNullable(data.get(key(x, y)))
+					   .map(FieldsView.Field::value);
 	}
 
 	public Stream<Point2D<P>> getAdjacents4(final Point2D<P> p) {
@@ -125,15 +178,14 @@ public class DynGrid<P extends Number, T> {
 	}
 
 	public long count(final BiPredicate<Point2D<P>, T> filter) {
-		return data.entrySet()
-				   .stream()
-				   .filter(e -> filter.test(e.getKey(), e.getValue()))
+		return data.values()
+				   .filter(f -> filter.test(f.position(), f.value()))
 				   .count();
 	}
 
 	@SuppressWarnings("MethodDoesntCallSuperMethod")
 	public DynGrid<P, T> clone() {
-		return DynGrid.copyOf(data);
+		return new DynGrid<>(data.copy());
 	}
 
 	public String toString(final BiFunction<Point2D<P>, T, String> renderer) {
@@ -178,31 +230,23 @@ public class DynGrid<P extends Number, T> {
 	}
 
 	private Point2D<P> getMinY() {
-		return data.keySet()
-				   .stream()
-				   .min(comparing(p -> p.getY().longValue()))
-				   .orElseThrow();
+		ensureBounds();
+		return requireNonNull(minYPoint);
 	}
 
 	private Point2D<P> getMaxY() {
-		return data.keySet()
-				   .stream()
-				   .max(comparing(p -> p.getY().longValue()))
-				   .orElseThrow();
+		ensureBounds();
+		return requireNonNull(maxYPoint);
 	}
 
 	private Point2D<P> getMaxX() {
-		return data.keySet()
-				   .stream()
-				   .max(comparing(p -> p.getX().longValue()))
-				   .orElseThrow();
+		ensureBounds();
+		return requireNonNull(maxXPoint);
 	}
 
 	private Point2D<P> getMinX() {
-		return data.keySet()
-				   .stream()
-				   .min(comparing(p -> p.getX().longValue()))
-				   .orElseThrow();
+		ensureBounds();
+		return requireNonNull(minXPoint);
 	}
 
 	public FieldsView<P, T> fields() {
@@ -291,18 +335,11 @@ public class DynGrid<P extends Number, T> {
 
 		}
 
+		/**
+		 * Stream of the live fields, the grid must not be modified while consuming it.
+		 */
 		public Stream<FieldsView.Field<P, T>> stream() {
-			return Map.copyOf(grid.data)
-					  .entrySet()
-					  .stream()
-					  .map(e -> new Field<>(e.getKey(), e.getValue()));
-		}
-
-		public Stream<FieldsView.Field<P, T>> streamDirect() {
-			return grid.data
-				.entrySet()
-				.stream()
-				.map(e -> new Field<>(e.getKey(), e.getValue()));
+			return grid.data.values();
 		}
 
 		public Stream<Row<P, T>> rows() {
@@ -343,16 +380,18 @@ public class DynGrid<P extends Number, T> {
 											  final Predicate<Field<P, T>> filter) {
 
 			final var cluster = new HashSet<Point2D<P>>();
-			final var q = new LinkedList<Point2D<P>>();
+			final var q = new ArrayDeque<Point2D<P>>();
+			cluster.add(p);
 			q.add(p);
 			while (!q.isEmpty()) {
-				final var n = q.pop();
-				cluster.add(n);
+				final var n = q.poll();
 				grid.getAdjacents4(n)
-					.filter(not(cluster::contains))
-					.filter(not(q::contains))
+					.filter(a -> !cluster.contains(a))
 					.filter(a -> filter.test(new Field<>(a, grid.getValueRequired(a))))
-					.forEach(q::add);
+					.forEach(a -> {
+						cluster.add(a);
+						q.add(a);
+					});
 			}
 			return cluster.stream();
 		}
@@ -361,15 +400,18 @@ public class DynGrid<P extends Number, T> {
 												 final Predicate<Field<P, Optional<T>>> filter) {
 
 			final var cluster = new HashSet<Point2D<P>>();
-			final var q = new LinkedList<Point2D<P>>();
+			final var q = new ArrayDeque<Point2D<P>>();
+			cluster.add(p);
 			q.add(p);
 			while (!q.isEmpty()) {
-				final var n = q.pop();
-				cluster.add(n);
+				final var n = q.poll();
 				grid.getAdjacents4(n, true)
-					.filter(not(cluster::contains))
+					.filter(a -> !cluster.contains(a))
 					.filter(a -> filter.test(new Field<>(a, grid.getValue(a))))
-					.forEach(q::add);
+					.forEach(a -> {
+						cluster.add(a);
+						q.add(a);
+					});
 			}
 			return cluster.stream();
 		}
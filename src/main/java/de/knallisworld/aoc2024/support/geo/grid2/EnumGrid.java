@@ -0,0 +1,169 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Fixed-size grid of enum values, stored as ordinal bytes in one flat row-major array (so at most 256 constants).
+ *
+ * @param <E> enum type
+ */
+public class EnumGrid<E extends Enum<E>> extends PrimitiveGrid<E> {
+
+	private final Class<E> type;
+	private final E[] constants;
+
+	final byte[] data;
+
+	public EnumGrid(final Class<E> type, final int initialHeight, final int initialWidth) {
+		super(initialHeight, initialWidth);
+		this.type = type;
+		this.constants = type.getEnumConstants();
+		if (constants.length > 256) {
+			throw new IllegalArgumentException("enum type has too many constants");
+		}
+		this.data = new byte[initialHeight * initialWidth];
+	}
+
+	public static <E extends Enum<E>> EnumGrid<E> create(final Class<E> type,
+														 final int initialHeight,
+														 final int initialWidth) {
+		return new EnumGrid<>(type, initialHeight, initialWidth);
+	}
+
+	public static <E extends Enum<E>> EnumGrid<E> copy(final EnumGrid<E> from) {
+		final var clone = create(from.type, from.height, from.width);
+		System.arraycopy(from.data, 0, clone.data, 0, from.data.length);
+		return clone;
+	}
+
+	public static <E extends Enum<E>> EnumGrid<E> of(final FixGrid<E> from, final Class<E> type) {
+		final var clone = create(type, from.getHeight(), from.getWidth());
+		from.fields().forEach(f -> clone.setValue(f.pos(), f.value()));
+		return clone;
+	}
+
+	/**
+	 * Parses the lines, each char is mapped by the decoder. The decoder is invoked only once per distinct char.
+	 */
+	public static <E extends Enum<E>> EnumGrid<E> parse(final Class<E> type,
+														final List<String> lines,
+														final Function<Character, E> decoder) {
+		final var grid = create(type, lines.size(), lines.getFirst().length());
+		final var decoded = new int[Character.MAX_VALUE + 1];
+		Arrays.fill(decoded, -1);
+		for (var y = 0; y < lines.size(); y++) {
+			final var line = lines.get(y);
+			final var offset = y * grid.width;
+			for (var x = 0; x < grid.width; x++) {
+				final var ch = line.charAt(x);
+				if (decoded[ch] < 0) {
+					decoded[ch] = decoder.apply(ch).ordinal();
+				}
+				grid.data[offset + x] = (byte) decoded[ch];
+			}
+		}
+		return grid;
+	}
+
+	@Override
+	public Class<E> type() {
+		return type;
+	}
+
+	@Override
+	E getBoxed(final int index) {
+		return constants[data[index] & 0xFF];
+	}
+
+	@Override
+	void setBoxed(final int index, final E value) {
+		data[index] = (byte) value.ordinal();
+	}
+
+	@Override
+	boolean sameValue(final int a, final int b) {
+		return data[a] == data[b];
+	}
+
+	@Override
+	void rotate4(final int a, final int b, final int c, final int d) {
+		final var temp = data[a];
+		data[a] = data[b];
+		data[b] = data[c];
+		data[c] = data[d];
+		data[d] = temp;
+	}
+
+	/**
+	 * Unchecked accessor.
+	 */
+	public E get(final int x, final int y) {
+		return constants[data[y * width + x] & 0xFF];
+	}
+
+	/**
+	 * Unchecked accessor.
+	 */
+	public E get(final int index) {
+		return constants[data[index] & 0xFF];
+	}
+
+	/**
+	 * Unchecked accessor of the ordinal.
+	 */
+	public int getOrdinal(final int index) {
+		return data[index] & 0xFF;
+	}
+
+	/**
+	 * Unchecked mutator.
+	 */
+	public void set(final int x, final int y, final E value) {
+		data[y * width + x] = (byte) value.ordinal();
+	}
+
+	/**
+	 * Unchecked mutator.
+	 */
+	public void set(final int index, final E value) {
+		data[index] = (byte) value.ordinal();
+	}
+
+	/**
+	 * The backing array of ordinals, not a copy.
+	 */
+	public byte[] array() {
+		return data;
+	}
+
+	public void fill(final E value) {
+		Arrays.fill(data, (byte) value.ordinal());
+	}
+
+	public EnumGrid<E> sub(final Point2D<Integer> topLeft, final Point2D<Integer> bottomRight) {
+		final var region = subRegion(topLeft, bottomRight);
+		final var result = create(type, region[3], region[2]);
+		for (var y = 0; y < region[3]; y++) {
+			System.arraycopy(data, index(region[0], region[1] + y), result.data, y * result.width, result.width);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		final var other = (EnumGrid<?>) o;
+		return type == other.type && width == other.width && Arrays.equals(data, other.data);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * width + Arrays.hashCode(data);
+	}
+
+}
@@ -1,8 +1,10 @@
 package de.knallisworld.aoc2024.support.geo.grid2;
 
 import de.knallisworld.aoc2024.support.geo.Point2D;
+import de.knallisworld.aoc2024.support.lang.Zobrist;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
 
 import java.lang.reflect.Array;
 import java.util.*;
@@ -12,15 +14,20 @@ import java.util.stream.Stream;
 
 import static java.lang.Math.floorMod;
 import static java.util.Objects.requireNonNull;
-import static java.util.function.Predicate.not;
 
-public class FixGrid<T> {
+public class FixGrid<T> implements ReadableGrid<T> {
 
 	private final Class<T> type;
 	private final T[][] data;
 
 	private final TransformView<T> transformView;
 
+	@Nullable
+	private volatile NeighbourTable neighbourTable;
+
+	@Nullable
+	private Zobrist stateHash;
+
 	public FixGrid(final Class<T> type, final int initialHeight, final int initialWidth) {
 		this.type = type;
 		this.data = createData(type, initialHeight, initialWidth);
@@ -81,6 +88,9 @@ public class FixGrid<T> {
 	public static <T> FixGrid<T> copy(FixGrid<T> from) {
 		final var clone = create(from.type, from.getHeight(), from.getWidth());
 		from.fields().forEach(f -> clone.setValue(f.pos, f.value));
+		if (from.stateHash != null) {
+			clone.trackStateHash();
+		}
 		return clone;
 	}
 
@@ -112,6 +122,9 @@ public class FixGrid<T> {
 	}
 
 	public void setValue(final int x, final int y, T value) {
+		if (stateHash != null) {
+			stateHash.setCell(index(x, y), data[y][x], value);
+		}
 		data[y][x] = value;
 	}
 
@@ -149,6 +162,68 @@ public class FixGrid<T> {
 		}
 	}
 
+	/**
+	 * Row-major linear index of the position ({@code y * width + x}).
+	 */
+	public int index(final int x, final int y) {
+		return y * data[0].length + x;
+	}
+
+	public int index(final Point2D<Integer> p) {
+		return index(p.getX(), p.getY());
+	}
+
+	public int x(final int index) {
+		return index % data[0].length;
+	}
+
+	public int y(final int index) {
+		return index / data[0].length;
+	}
+
+	public Point2D<Integer> pos(final int index) {
+		return Point2D.create(x(index), y(index));
+	}
+
+	public boolean hasValue(final int index) {
+		return 0 <= index && index < size() && data[y(index)][x(index)] != null;
+	}
+
+	/**
+	 * Unchecked accessor by linear index; may return {@code null} for an unset field.
+	 */
+	@Nullable
+	public T getValueAt(final int index) {
+		return data[y(index)][x(index)];
+	}
+
+	public void setValue(final int index, final T value) {
+		if (stateHash != null) {
+			stateHash.setCell(index, data[y(index)][x(index)], value);
+		}
+		data[y(index)][x(index)] = value;
+	}
+
+	/**
+	 * Precomputed adjacency of this grid's dimension, built on first use.
+	 */
+	public NeighbourTable neighbours() {
+		var result = neighbourTable;
+		if (result == null) {
+			result = NeighbourTable.of(getWidth(), getHeight());
+			neighbourTable = result;
+		}
+		return result;
+	}
+
+	public void forEachNeighbour4(final int index, final IntConsumer consumer) {
+		neighbours().forEachAdjacent4(index, consumer);
+	}
+
+	public void forEachNeighbour8(final int index, final IntConsumer consumer) {
+		neighbours().forEachAdjacent8(index, consumer);
+	}
+
 	public FieldsView<T> fields() {
 		return new FieldsView<>(this);
 	}
@@ -157,6 +232,13 @@ public class FixGrid<T> {
 		return transformView;
 	}
 
+	/**
+	 * Lazy read-only view, see {@link GridView}.
+	 */
+	public GridView<T> view() {
+		return GridView.of(type, getWidth(), getHeight(), (x, y) -> data[y][x]);
+	}
+
 	public FixGrid<T> sub(final Point2D<Integer> topLeft, final Point2D<Integer> bottomRight) {
 		final var offsetY = Math.max(topLeft.getY(), 0);
 		final var offsetX = Math.max(topLeft.getX(), 0);
@@ -164,8 +246,8 @@ public class FixGrid<T> {
 		final var limitX = Math.min(bottomRight.getX(), getWidth() - 1);
 		final var result = FixGrid.create(
 			type,
-			limitY - offsetY,
-			limitX - offsetX
+			limitY - offsetY + 1,
+			limitX - offsetX + 1
 		);
 		for (var y = offsetY; y <= limitY; y++) {
 			for (var x = offsetX; x <= limitX; x++) {
@@ -179,6 +261,37 @@ public class FixGrid<T> {
 		IntStream.range(0, data.length)
 				 .forEach(y -> IntStream.range(0, data[y].length)
 										.forEach(x -> data[y][x] = value));
+		if (stateHash != null) {
+			trackStateHash();
+		}
+	}
+
+	/**
+	 * Starts maintaining a {@link Zobrist} hash of all cells, updated in O(1) on every write; cheaper than
+	 * {@link #hashCode()} for detecting repeated states of a long simulation.
+	 */
+	public FixGrid<T> trackStateHash() {
+		final var hash = stateHash != null ? stateHash : new Zobrist();
+		hash.reset();
+		for (var y = 0; y < data.length; y++) {
+			for (var x = 0; x < data[y].length; x++) {
+				hash.toggle(Zobrist.cell(index(x, y), data[y][x]));
+			}
+		}
+		stateHash = hash;
+		return this;
+	}
+
+	/**
+	 * Current {@link Zobrist} hash of all cells.
+	 *
+	 * @throws IllegalStateException if not tracked, see {@link #trackStateHash()}
+	 */
+	public long stateHash() {
+		if (stateHash == null) {
+			throw new IllegalStateException("state hash not tracked");
+		}
+		return stateHash.value();
 	}
 
 	public int getHeight() {
@@ -243,19 +356,23 @@ public class FixGrid<T> {
 		public Stream<Point2D<Integer>> getCluster4(final Point2D<Integer> p,
 													final Predicate<Field<T>> filter) {
 
-			final var cluster = new HashSet<Point2D<Integer>>();
-			final var q = new LinkedList<Point2D<Integer>>();
+			final var visited = new BitSet(grid.size());
+			final var q = new ArrayDeque<Point2D<Integer>>();
+			final var cluster = Stream.<Point2D<Integer>>builder();
+			visited.set(grid.index(p));
 			q.add(p);
 			while (!q.isEmpty()) {
-				final var n = q.pop();
+				final var n = q.poll();
 				cluster.add(n);
 				getAdjacents4(n)
-					.filter(not(cluster::contains))
-					.filter(not(q::contains))
+					.filter(a -> !visited.get(grid.index(a)))
 					.filter(a -> filter.test(new Field<>(a, grid.getValueRequired(a))))
-					.forEach(q::add);
+					.forEach(a -> {
+						visited.set(grid.index(a));
+						q.add(a);
+					});
 			}
-			return cluster.stream();
+			return cluster.build();
 		}
 
 		public Stream<Point2D<Integer>> getAdjacents8(final Point2D<Integer> p) {
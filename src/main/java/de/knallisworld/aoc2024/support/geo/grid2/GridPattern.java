@@ -0,0 +1,276 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Motif search on a {@link ByteGrid}: a set of stencils (cells relative to an anchor, each expecting a byte) is
+ * compiled into flat tables, optionally in several orientations, and matched against every anchor position.
+ * <p>
+ * Scans run row-parallel, candidates are prefiltered by a variant's first cell with {@link ByteKernels}; a compiled
+ * pattern is immutable and can be reused across grids.
+ */
+public final class GridPattern {
+
+	public record Cell(int dx, int dy, byte expected) {
+	}
+
+	/**
+	 * Cells expected relative to the anchor {@code (0, 0)}.
+	 */
+	public record Stencil(List<Cell> cells) {
+
+		public Stencil {
+			if (cells.isEmpty()) {
+				throw new IllegalArgumentException("stencil must not be empty");
+			}
+			cells = List.copyOf(cells);
+		}
+
+		/**
+		 * The rows as drawn, anchored at the top left char; chars equal to the wildcard match anything.
+		 */
+		public static Stencil parse(final List<String> rows, final char wildcard) {
+			final var cells = new ArrayList<Cell>();
+			for (var y = 0; y < rows.size(); y++) {
+				final var row = rows.get(y);
+				for (var x = 0; x < row.length(); x++) {
+					if (row.charAt(x) != wildcard) {
+						cells.add(new Cell(x, y, (byte) row.charAt(x)));
+					}
+				}
+			}
+			return new Stencil(cells);
+		}
+
+		/**
+		 * The word from left to right, anchored at its first char.
+		 */
+		public static Stencil horizontal(final String word) {
+			return new Stencil(IntStream.range(0, word.length())
+										.mapToObj(i -> new Cell(i, 0, (byte) word.charAt(i)))
+										.toList());
+		}
+
+		/**
+		 * The word from top left to bottom right, anchored at its first char.
+		 */
+		public static Stencil diagonal(final String word) {
+			return new Stencil(IntStream.range(0, word.length())
+										.mapToObj(i -> new Cell(i, i, (byte) word.charAt(i)))
+										.toList());
+		}
+
+		/**
+		 * This stencil as seen through the orientation, still anchored at the same cell.
+		 */
+		public Stencil oriented(final Orientation orientation) {
+			// the linear part is orthogonal, so its inverse is the transposed
+			final var a = orientation.affine(1, 1);
+			return new Stencil(cells.stream()
+									.map(c -> new Cell(
+										a[2] * c.dx() + a[3] * c.dy(),
+										a[4] * c.dx() + a[5] * c.dy(),
+										c.expected()
+									))
+									.toList());
+		}
+
+		/**
+		 * Same cells, sorted and translated to the origin; equal for stencils matching the same cells.
+		 */
+		private Stencil normalized() {
+			final var minX = cells.stream().mapToInt(Cell::dx).min().orElseThrow();
+			final var minY = cells.stream().mapToInt(Cell::dy).min().orElseThrow();
+			return new Stencil(cells.stream()
+									.map(c -> new Cell(c.dx() - minX, c.dy() - minY, c.expected()))
+									.sorted(Comparator.comparingInt(Cell::dy)
+													  .thenComparingInt(Cell::dx)
+													  .thenComparingInt(Cell::expected))
+									.toList());
+		}
+
+	}
+
+	// cells of all variants, flat; variant v covers [variantStart[v], variantStart[v + 1])
+	private final int[] dx;
+	private final int[] dy;
+	private final byte[] expected;
+	private final int[] variantStart;
+	// bounding box of each variant relative to its anchor
+	private final int[] minDx;
+	private final int[] maxDx;
+	private final int[] minDy;
+	private final int[] maxDy;
+
+	private GridPattern(final List<Stencil> variants) {
+		final var cells = variants.stream().mapToInt(v -> v.cells().size()).sum();
+		this.dx = new int[cells];
+		this.dy = new int[cells];
+		this.expected = new byte[cells];
+		this.variantStart = new int[variants.size() + 1];
+		this.minDx = new int[variants.size()];
+		this.maxDx = new int[variants.size()];
+		this.minDy = new int[variants.size()];
+		this.maxDy = new int[variants.size()];
+		var k = 0;
+		for (var v = 0; v < variants.size(); v++) {
+			variantStart[v] = k;
+			minDx[v] = Integer.MAX_VALUE;
+			minDy[v] = Integer.MAX_VALUE;
+			maxDx[v] = Integer.MIN_VALUE;
+			maxDy[v] = Integer.MIN_VALUE;
+			for (final var cell : variants.get(v).cells()) {
+				dx[k] = cell.dx();
+				dy[k] = cell.dy();
+				expected[k] = cell.expected();
+				minDx[v] = Math.min(minDx[v], cell.dx());
+				minDy[v] = Math.min(minDy[v], cell.dy());
+				maxDx[v] = Math.max(maxDx[v], cell.dx());
+				maxDy[v] = Math.max(maxDy[v], cell.dy());
+				k++;
+			}
+		}
+		variantStart[variants.size()] = k;
+	}
+
+	/**
+	 * Compiles the stencils in each of the orientations; variants matching the same cells (e.g. of a symmetric stencil)
+	 * are matched once, at the anchor of the first one.
+	 */
+	public static GridPattern compile(final Collection<Stencil> stencils, final Collection<Orientation> orientations) {
+		final var variants = new LinkedHashMap<Stencil, Stencil>();
+		for (final var stencil : stencils) {
+			for (final var orientation : orientations) {
+				final var oriented = stencil.oriented(orientation);
+				variants.putIfAbsent(oriented.normalized(), oriented);
+			}
+		}
+		return new GridPattern(List.copyOf(variants.values()));
+	}
+
+	/**
+	 * Compiles the stencils as they are.
+	 */
+	public static GridPattern compile(final Stencil... stencils) {
+		return compile(List.of(stencils), List.of(Orientation.IDENTITY));
+	}
+
+	/**
+	 * Compiles the stencils in all eight orientations.
+	 */
+	public static GridPattern compileAllOrientations(final Stencil... stencils) {
+		return compile(List.of(stencils), List.of(Orientation.values()));
+	}
+
+	/**
+	 * Number of distinct compiled variants.
+	 */
+	public int variants() {
+		return variantStart.length - 1;
+	}
+
+	/**
+	 * Number of matches, counting each matching variant at each anchor.
+	 */
+	public long count(final ByteGrid grid) {
+		final var deltas = deltas(grid.getWidth());
+		return IntStream.range(0, grid.getHeight())
+						.parallel()
+						.mapToLong(y -> scanRow(grid, deltas, y, null))
+						.sum();
+	}
+
+	/**
+	 * Anchor indices of the matches in row-major order, one entry per matching variant.
+	 */
+	public int[] positions(final ByteGrid grid) {
+		final var deltas = deltas(grid.getWidth());
+		return IntStream.range(0, grid.getHeight())
+						.parallel()
+						.mapToObj(y -> {
+							final var buffer = new Buffer();
+							scanRow(grid, deltas, y, buffer);
+							return buffer.toSortedArray();
+						})
+						.flatMapToInt(Arrays::stream)
+						.toArray();
+	}
+
+	private int[] deltas(final int width) {
+		final var result = new int[dx.length];
+		for (var k = 0; k < result.length; k++) {
+			result[k] = dy[k] * width + dx[k];
+		}
+		return result;
+	}
+
+	private long scanRow(final ByteGrid grid, final int[] deltas, final int y, @Nullable final Buffer positions) {
+		final var data = grid.data;
+		final var width = grid.getWidth();
+		final var height = grid.getHeight();
+		final var row = y * width;
+		final var kernels = ByteKernels.instance();
+		final var mask = new long[ByteKernels.maskWords(width)];
+		var count = 0L;
+		for (var v = 0; v < variants(); v++) {
+			final var fromX = Math.max(0, -minDx[v]);
+			final var toX = Math.min(width, width - maxDx[v]);
+			if (fromX >= toX || y + minDy[v] < 0 || y + maxDy[v] >= height) {
+				continue;
+			}
+			// candidates by the first cell, in one pass over the row
+			final var first = variantStart[v];
+			kernels.equalMask(data, row + fromX + deltas[first], toX - fromX, expected[first], mask);
+			for (var w = 0; w < mask.length; w++) {
+				var bits = mask[w];
+				while (bits != 0) {
+					final var anchor = row + fromX + (w << 6) + Long.numberOfTrailingZeros(bits);
+					bits &= bits - 1;
+					var matches = true;
+					for (var k = first + 1; k < variantStart[v + 1]; k++) {
+						if (data[anchor + deltas[k]] != expected[k]) {
+							matches = false;
+							break;
+						}
+					}
+					if (matches) {
+						count++;
+						if (positions != null) {
+							positions.add(anchor);
+						}
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	private static final class Buffer {
+
+		private int[] values = new int[16];
+		private int size;
+
+		void add(final int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int[] toSortedArray() {
+			final var result = Arrays.copyOf(values, size);
+			Arrays.sort(result);
+			return result;
+		}
+
+	}
+
+}
@@ -0,0 +1,210 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of a grid, remapping coordinates lazily: any {@link Orientation} and rectangular window, in any
+ * combination, without copying the source.
+ * <p>
+ * A view reflects later changes of its source.
+ *
+ * @param <T> value type
+ */
+public final class GridView<T> {
+
+	private static final int BLOCK = 64;
+
+	/**
+	 * Unchecked accessor of the source.
+	 */
+	@FunctionalInterface
+	public interface Source<T> {
+
+		T get(int x, int y);
+
+	}
+
+	private final Class<T> type;
+	private final Source<T> source;
+	private final int width;
+	private final int height;
+
+	// source of (x, y) is (originX + x * xx + y * yx, originY + x * xy + y * yy)
+	private final int originX;
+	private final int originY;
+	private final int xx;
+	private final int xy;
+	private final int yx;
+	private final int yy;
+
+	private GridView(final Class<T> type,
+					 final Source<T> source,
+					 final int width,
+					 final int height,
+					 final int originX,
+					 final int originY,
+					 final int xx,
+					 final int xy,
+					 final int yx,
+					 final int yy) {
+		this.type = type;
+		this.source = source;
+		this.width = width;
+		this.height = height;
+		this.originX = originX;
+		this.originY = originY;
+		this.xx = xx;
+		this.xy = xy;
+		this.yx = yx;
+		this.yy = yy;
+	}
+
+	public static <T> GridView<T> of(final Class<T> type, final int width, final int height, final Source<T> source) {
+		return new GridView<>(type, source, width, height, 0, 0, 1, 0, 0, 1);
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int size() {
+		return width * height;
+	}
+
+	public Class<T> type() {
+		return type;
+	}
+
+	public boolean hasValue(final int x, final int y) {
+		return 0 <= x && x < width && 0 <= y && y < height;
+	}
+
+	/**
+	 * Unchecked accessor.
+	 */
+	public T get(final int x, final int y) {
+		return source.get(originX + x * xx + y * yx, originY + x * xy + y * yy);
+	}
+
+	public Optional<T> getValue(final int x, final int y) {
+		if (!hasValue(x, y)) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(get(x, y));
+	}
+
+	public Optional<T> getValue(final Point2D<Integer> p) {
+		return getValue(p.getX(), p.getY());
+	}
+
+	/**
+	 * Source position of the view's cell.
+	 */
+	public Point2D<Integer> sourceOf(final int x, final int y) {
+		return Point2D.create(originX + x * xx + y * yx, originY + x * xy + y * yy);
+	}
+
+	/**
+	 * This view, transformed by the orientation.
+	 */
+	public GridView<T> oriented(final Orientation orientation) {
+		if (orientation == Orientation.IDENTITY) {
+			return this;
+		}
+		// compose: (x', y') -> (x, y) of this view -> source
+		final var a = orientation.affine(width, height);
+		return new GridView<>(
+			type,
+			source,
+			orientation.width(width, height),
+			orientation.height(width, height),
+			originX + a[0] * xx + a[1] * yx,
+			originY + a[0] * xy + a[1] * yy,
+			a[2] * xx + a[3] * yx,
+			a[2] * xy + a[3] * yy,
+			a[4] * xx + a[5] * yx,
+			a[4] * xy + a[5] * yy
+		);
+	}
+
+	/**
+	 * Rectangular window of this view, starting at (x, y).
+	 */
+	public GridView<T> window(final int x, final int y, final int windowWidth, final int windowHeight) {
+		if (x < 0 || y < 0 || windowWidth < 0 || windowHeight < 0
+			|| x + windowWidth > width || y + windowHeight > height) {
+			throw new IndexOutOfBoundsException("window exceeds the view");
+		}
+		return new GridView<>(
+			type,
+			source,
+			windowWidth,
+			windowHeight,
+			originX + x * xx + y * yx,
+			originY + x * xy + y * yy,
+			xx,
+			xy,
+			yx,
+			yy
+		);
+	}
+
+	/**
+	 * Rectangular window between both corners (inclusive).
+	 */
+	public GridView<T> window(final Point2D<Integer> topLeft, final Point2D<Integer> bottomRight) {
+		return window(
+			topLeft.getX(),
+			topLeft.getY(),
+			bottomRight.getX() - topLeft.getX() + 1,
+			bottomRight.getY() - topLeft.getY() + 1
+		);
+	}
+
+	public Stream<FixGrid.FieldsView.Field<T>> stream() {
+		return IntStream.range(0, height)
+						.boxed()
+						.flatMap(y -> IntStream.range(0, width)
+											   .mapToObj(x -> new FixGrid.FieldsView.Field<>(Point2D.create(x, y), get(x, y))));
+	}
+
+	/**
+	 * Dense copy of the view. Copied in square blocks, so that reading a source with swapped axes stays local.
+	 */
+	public FixGrid<T> materialize() {
+		final var result = FixGrid.create(type, height, width);
+		for (var by = 0; by < height; by += BLOCK) {
+			final var limitY = Math.min(height, by + BLOCK);
+			for (var bx = 0; bx < width; bx += BLOCK) {
+				final var limitX = Math.min(width, bx + BLOCK);
+				for (var y = by; y < limitY; y++) {
+					for (var x = bx; x < limitX; x++) {
+						result.setValue(x, y, get(x, y));
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	public String toString(final BiFunction<Point2D<Integer>, T, String> renderer) {
+		final var sb = new StringBuilder();
+		for (var y = 0; y < height; y++) {
+			for (var x = 0; x < width; x++) {
+				sb.append(renderer.apply(Point2D.create(x, y), get(x, y)));
+			}
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,208 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.graph.PrimitiveHeap;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Shortest path between two fixed cells of a row-major grid (4 directions, each step costs 1) which is maintained
+ * while cells get blocked one after another (Lifelong Planning A*).
+ * <p>
+ * Blocking a cell off the current path cannot change the distance, so only the affected cells are marked and the
+ * repair is deferred. Blocking a cell on the path repairs the search state around the changes instead of searching
+ * from scratch. Not thread-safe.
+ */
+public class IncrementalShortestPath {
+
+	public static final int UNREACHED = -1;
+
+	private static final int INF = Integer.MAX_VALUE / 2;
+
+	private final int width;
+	private final int height;
+	private final int start;
+	private final int goal;
+	private final int goalX;
+	private final int goalY;
+
+	private final int[] g;
+	private final int[] rhs;
+	private final BitSet blocked;
+	private final BitSet path;
+	private final PrimitiveHeap queue;
+
+	private int distance;
+	private int repairs;
+
+	public IncrementalShortestPath(final int width, final int height, final int start, final int goal) {
+		this.width = width;
+		this.height = height;
+		this.start = start;
+		this.goal = goal;
+		this.goalX = goal % width;
+		this.goalY = goal / width;
+		this.g = new int[width * height];
+		this.rhs = new int[width * height];
+		this.blocked = new BitSet(width * height);
+		this.path = new BitSet(width * height);
+		this.queue = new PrimitiveHeap();
+		Arrays.fill(g, INF);
+		Arrays.fill(rhs, INF);
+		rhs[start] = 0;
+		queue.add(key(start), start);
+		repair();
+	}
+
+	/**
+	 * Current distance, {@link #UNREACHED} if the goal cannot be reached.
+	 */
+	public int distance() {
+		return distance;
+	}
+
+	/**
+	 * Number of repairs so far (the initial search included).
+	 */
+	public int repairs() {
+		return repairs;
+	}
+
+	public boolean isBlocked(final int index) {
+		return blocked.get(index);
+	}
+
+	public boolean isOnPath(final int index) {
+		return path.get(index);
+	}
+
+	/**
+	 * Blocks the cell.
+	 *
+	 * @return the new distance, {@link #UNREACHED} if the goal cannot be reached anymore
+	 */
+	public int block(final int index) {
+		if (distance == UNREACHED || blocked.get(index)) {
+			return distance;
+		}
+		blocked.set(index);
+		if (index == start || index == goal) {
+			path.clear();
+			distance = UNREACHED;
+			return distance;
+		}
+		updateVertex(index);
+		forEachNeighbour(index, this::updateVertex);
+		if (path.get(index)) {
+			repair();
+		}
+		return distance;
+	}
+
+	private void repair() {
+		repairs++;
+		computeShortestPath();
+		path.clear();
+		if (g[goal] >= INF) {
+			distance = UNREACHED;
+			return;
+		}
+		distance = g[goal];
+		var current = goal;
+		path.set(current);
+		while (current != start) {
+			final var here = current;
+			final var best = new int[]{-1};
+			forEachNeighbour(here, n -> {
+				if (!blocked.get(n) && g[n] + 1 == g[here] && best[0] < 0) {
+					best[0] = n;
+				}
+			});
+			current = best[0];
+			path.set(current);
+		}
+	}
+
+	private void computeShortestPath() {
+		while (true) {
+			final var top = topKey();
+			if (top == Long.MAX_VALUE || (top >= key(goal) && g[goal] == rhs[goal])) {
+				return;
+			}
+			final var u = (int) queue.poll();
+			if (g[u] > rhs[u]) {
+				g[u] = rhs[u];
+			} else {
+				g[u] = INF;
+				updateVertex(u);
+			}
+			forEachNeighbour(u, this::updateVertex);
+		}
+	}
+
+	/**
+	 * Key of the first queued cell which is still inconsistent, skipping stale entries.
+	 */
+	private long topKey() {
+		while (!queue.isEmpty()) {
+			final var u = (int) queue.peekValue();
+			if (g[u] != rhs[u] && queue.peekPriority() == key(u)) {
+				return queue.peekPriority();
+			}
+			queue.poll();
+		}
+		return Long.MAX_VALUE;
+	}
+
+	private void updateVertex(final int u) {
+		if (u != start) {
+			var min = INF;
+			if (!blocked.get(u)) {
+				final var x = u % width;
+				if (u >= width) {
+					min = Math.min(min, g[u - width] + 1);
+				}
+				if (x < width - 1) {
+					min = Math.min(min, g[u + 1] + 1);
+				}
+				if (u + width < g.length) {
+					min = Math.min(min, g[u + width] + 1);
+				}
+				if (x > 0) {
+					min = Math.min(min, g[u - 1] + 1);
+				}
+			}
+			rhs[u] = Math.min(min, INF);
+		}
+		if (g[u] != rhs[u]) {
+			queue.add(key(u), u);
+		}
+	}
+
+	/**
+	 * Lexicographic key {@code [min(g, rhs) + h, min(g, rhs)]} packed into one long.
+	 */
+	private long key(final int u) {
+		final var k2 = Math.min(g[u], rhs[u]);
+		final var h = Math.abs(u % width - goalX) + Math.abs(u / width - goalY);
+		return ((long) (k2 + h) << 32) | k2;
+	}
+
+	private void forEachNeighbour(final int u, final IntConsumer consumer) {
+		final var x = u % width;
+		if (u >= width) {
+			consumer.accept(u - width);
+		}
+		if (x < width - 1) {
+			consumer.accept(u + 1);
+		}
+		if (u + width < width * height) {
+			consumer.accept(u + width);
+		}
+		if (x > 0) {
+			consumer.accept(u - 1);
+		}
+	}
+
+}
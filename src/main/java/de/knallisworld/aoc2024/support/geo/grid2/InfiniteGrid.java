@@ -3,6 +3,7 @@ package de.knallisworld.aoc2024.support.geo.grid2;
 import de.knallisworld.aoc2024.support.geo.Point2D;
 import lombok.Builder;
 import lombok.Getter;
+import org.springframework.lang.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -14,10 +15,18 @@ import static java.lang.Math.floorMod;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toSet;
 
+/**
+ * Endless repetition of a base grid in both directions.
+ * <p>
+ * Writes do not touch the base, but are kept in a sparse overlay (see {@link ChunkedGrid}) on top of it.
+ */
 public class InfiniteGrid<T> {
 
 	final FixGrid<T> base;
 
+	@Nullable
+	private ChunkedGrid<T> overlay;
+
 	InfiniteGrid(final FixGrid<T> base) {
 		this.base = base;
 	}
@@ -31,6 +40,12 @@ public class InfiniteGrid<T> {
 	}
 
 	public T getValueRequired(final int x, final int y) {
+		if (overlay != null) {
+			final var value = overlay.get(x, y);
+			if (value != null) {
+				return value;
+			}
+		}
 		final var width = base.getWidth();
 		final var height = base.getHeight();
 		final var rx = floorMod(x, width);
@@ -38,6 +53,36 @@ public class InfiniteGrid<T> {
 		return requireNonNull(base.getValueRequired(rx, ry));
 	}
 
+	/**
+	 * Overrides the value at the given position only (not its repetitions).
+	 */
+	public void setValue(final Point2D<Integer> p, final T value) {
+		setValue(p.getX(), p.getY(), value);
+	}
+
+	public void setValue(final int x, final int y, final T value) {
+		if (overlay == null) {
+			overlay = ChunkedGrid.empty();
+		}
+		overlay.set(x, y, requireNonNull(value));
+	}
+
+	/**
+	 * Reverts the value at the given position to the base's one.
+	 */
+	public void clearValue(final Point2D<Integer> p) {
+		if (overlay != null) {
+			overlay.clear(p.getX(), p.getY());
+		}
+	}
+
+	/**
+	 * Number of overridden positions.
+	 */
+	public long overrides() {
+		return overlay != null ? overlay.size() : 0;
+	}
+
 	public FieldsView<T> fields() {
 		return fields(s -> {
 		});
@@ -0,0 +1,143 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Fixed-size grid of {@code int} values, backed by one flat row-major array.
+ */
+public class IntGrid extends PrimitiveGrid<Integer> {
+
+	final int[] data;
+
+	public IntGrid(final int initialHeight, final int initialWidth) {
+		super(initialHeight, initialWidth);
+		this.data = new int[initialHeight * initialWidth];
+	}
+
+	public static IntGrid create(final int initialHeight, final int initialWidth) {
+		return new IntGrid(initialHeight, initialWidth);
+	}
+
+	public static IntGrid copy(final IntGrid from) {
+		final var clone = create(from.height, from.width);
+		System.arraycopy(from.data, 0, clone.data, 0, from.data.length);
+		return clone;
+	}
+
+	/**
+	 * Parses the lines, each char is mapped by the decoder.
+	 */
+	public static IntGrid parse(final List<String> lines, final IntUnaryOperator decoder) {
+		final var grid = create(lines.size(), lines.getFirst().length());
+		for (var y = 0; y < lines.size(); y++) {
+			final var line = lines.get(y);
+			final var offset = y * grid.width;
+			for (var x = 0; x < grid.width; x++) {
+				grid.data[offset + x] = decoder.applyAsInt(line.charAt(x));
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Parses the lines as single digits.
+	 */
+	public static IntGrid parseDigits(final List<String> lines) {
+		return parse(lines, ch -> ch - '0');
+	}
+
+	@Override
+	public Class<Integer> type() {
+		return Integer.class;
+	}
+
+	@Override
+	Integer getBoxed(final int index) {
+		return data[index];
+	}
+
+	@Override
+	void setBoxed(final int index, final Integer value) {
+		data[index] = value;
+	}
+
+	@Override
+	boolean sameValue(final int a, final int b) {
+		return data[a] == data[b];
+	}
+
+	@Override
+	void rotate4(final int a, final int b, final int c, final int d) {
+		final var temp = data[a];
+		data[a] = data[b];
+		data[b] = data[c];
+		data[c] = data[d];
+		data[d] = temp;
+	}
+
+	/**
+	 * Unchecked accessor.
+	 */
+	public int get(final int x, final int y) {
+		return data[y * width + x];
+	}
+
+	/**
+	 * Unchecked accessor.
+	 */
+	public int get(final int index) {
+		return data[index];
+	}
+
+	/**
+	 * Unchecked mutator.
+	 */
+	public void set(final int x, final int y, final int value) {
+		data[y * width + x] = value;
+	}
+
+	/**
+	 * Unchecked mutator.
+	 */
+	public void set(final int index, final int value) {
+		data[index] = value;
+	}
+
+	/**
+	 * The backing array, not a copy.
+	 */
+	public int[] array() {
+		return data;
+	}
+
+	public void fill(final int value) {
+		Arrays.fill(data, value);
+	}
+
+	public IntGrid sub(final Point2D<Integer> topLeft, final Point2D<Integer> bottomRight) {
+		final var region = subRegion(topLeft, bottomRight);
+		final var result = create(region[3], region[2]);
+		for (var y = 0; y < region[3]; y++) {
+			System.arraycopy(data, index(region[0], region[1] + y), result.data, y * result.width, result.width);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		final var other = (IntGrid) o;
+		return width == other.width && Arrays.equals(data, other.data);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * width + Arrays.hashCode(data);
+	}
+
+}
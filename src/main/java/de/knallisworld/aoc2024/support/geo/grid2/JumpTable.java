@@ -0,0 +1,104 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Straight-line movement in O(1): for every free cell and {@link Direction}, the cell where a walker stops in front
+ * of the next obstacle, or {@link #EXIT} if it leaves the grid first.
+ * <p>
+ * One additional obstacle can be patched in per query, without rebuilding the table. Immutable once built, so it can
+ * be shared across threads.
+ */
+public final class JumpTable {
+
+	public static final int EXIT = -1;
+	public static final int NONE = -1;
+
+	private final int width;
+	private final int height;
+	// stops[direction.ordinal()][index]
+	private final int[][] stops;
+
+	private JumpTable(final int width, final int height) {
+		this.width = width;
+		this.height = height;
+		this.stops = new int[4][width * height];
+	}
+
+	/**
+	 * @param blocked whether the cell (by row-major index) is an obstacle
+	 */
+	public static JumpTable of(final int width, final int height, final IntPredicate blocked) {
+		final var result = new JumpTable(width, height);
+		final var north = result.stops[Direction.North.ordinal()];
+		final var east = result.stops[Direction.East.ordinal()];
+		final var south = result.stops[Direction.South.ordinal()];
+		final var west = result.stops[Direction.West.ordinal()];
+		// a cell stops where its successor does, unless the successor is blocked or outside
+		for (var y = 0; y < height; y++) {
+			for (var x = 0; x < width; x++) {
+				final var index = y * width + x;
+				west[index] = x == 0 ? EXIT : blocked.test(index - 1) ? index : west[index - 1];
+				north[index] = y == 0 ? EXIT : blocked.test(index - width) ? index : north[index - width];
+			}
+		}
+		for (var y = height - 1; y >= 0; y--) {
+			for (var x = width - 1; x >= 0; x--) {
+				final var index = y * width + x;
+				east[index] = x == width - 1 ? EXIT : blocked.test(index + 1) ? index : east[index + 1];
+				south[index] = y == height - 1 ? EXIT : blocked.test(index + width) ? index : south[index + width];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param blocked whether a set value is an obstacle; unset cells are free
+	 */
+	public static <T> JumpTable of(final ReadableGrid<T> grid, final Predicate<? super T> blocked) {
+		return of(grid.getWidth(), grid.getHeight(), index -> {
+			final var value = grid.getValueAt(index);
+			return value != null && blocked.test(value);
+		});
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Stop when walking from the (free) cell into the direction, or {@link #EXIT}; the cell itself if the next one is
+	 * blocked.
+	 */
+	public int jump(final int index, final Direction direction) {
+		return stops[direction.ordinal()][index];
+	}
+
+	/**
+	 * Like {@link #jump(int, Direction)}, with an additional obstacle at {@code obstacle} (or {@link #NONE}). The
+	 * obstacle only matters ahead of the start cell.
+	 */
+	public int jump(final int index, final Direction direction, final int obstacle) {
+		final var stop = stops[direction.ordinal()][index];
+		if (obstacle == NONE) {
+			return stop;
+		}
+		final var x = index % width;
+		final var y = index / width;
+		final var ox = obstacle % width;
+		final var oy = obstacle / width;
+		final var hit = switch (direction) {
+			case North -> ox == x && oy < y && (stop == EXIT || oy >= stop / width);
+			case South -> ox == x && oy > y && (stop == EXIT || oy <= stop / width);
+			case West -> oy == y && ox < x && (stop == EXIT || ox >= stop % width);
+			case East -> oy == y && ox > x && (stop == EXIT || ox <= stop % width);
+		};
+		return hit ? obstacle - direction.dx() - direction.dy() * width : stop;
+	}
+
+}
@@ -0,0 +1,102 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.IntPoint;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Precomputed adjacency of a row-major grid ({@code index = y * width + x}).
+ * <p>
+ * Neighbours are stored in the order of {@link IntPoint} (4: up, right, down, left; 8: clockwise starting with up),
+ * neighbours outside the grid are stored as {@link #NONE}. The 8-neighbour table is only built on first use.
+ */
+public final class NeighbourTable {
+
+	public static final int NONE = -1;
+
+	private final int width;
+	private final int height;
+	private final int[] adjacents4;
+	private volatile int[] adjacents8;
+
+	private NeighbourTable(final int width, final int height) {
+		this.width = width;
+		this.height = height;
+		this.adjacents4 = build(width, height, 4);
+	}
+
+	public static NeighbourTable of(final int width, final int height) {
+		return new NeighbourTable(width, height);
+	}
+
+	private static int[] build(final int width, final int height, final int count) {
+		final var result = new int[width * height * count];
+		for (var y = 0; y < height; y++) {
+			for (var x = 0; x < width; x++) {
+				final var base = (y * width + x) * count;
+				for (var d = 0; d < count; d++) {
+					final var a = count == 4
+						? IntPoint.step(IntPoint.of(x, y), d)
+						: IntPoint.step8(IntPoint.of(x, y), d);
+					final var ax = IntPoint.x(a);
+					final var ay = IntPoint.y(a);
+					result[base + d] = 0 <= ax && ax < width && 0 <= ay && ay < height ? ay * width + ax : NONE;
+				}
+			}
+		}
+		return result;
+	}
+
+	public int width() {
+		return width;
+	}
+
+	public int height() {
+		return height;
+	}
+
+	/**
+	 * Index of the adjacent cell in the given direction (0 = up, 1 = right, 2 = down, 3 = left) or {@link #NONE}.
+	 */
+	public int adjacent4(final int index, final int direction) {
+		return adjacents4[index * 4 + direction];
+	}
+
+	/**
+	 * Index of the adjacent cell in the given direction (clockwise, 0 = up) or {@link #NONE}.
+	 */
+	public int adjacent8(final int index, final int direction) {
+		return adjacents8()[index * 8 + direction];
+	}
+
+	public void forEachAdjacent4(final int index, final IntConsumer consumer) {
+		final var base = index * 4;
+		for (var d = 0; d < 4; d++) {
+			final var a = adjacents4[base + d];
+			if (a != NONE) {
+				consumer.accept(a);
+			}
+		}
+	}
+
+	public void forEachAdjacent8(final int index, final IntConsumer consumer) {
+		final var table = adjacents8();
+		final var base = index * 8;
+		for (var d = 0; d < 8; d++) {
+			final var a = table[base + d];
+			if (a != NONE) {
+				consumer.accept(a);
+			}
+		}
+	}
+
+	private int[] adjacents8() {
+		var result = adjacents8;
+		if (result == null) {
+			result = build(width, height, 8);
+			adjacents8 = result;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,85 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+/**
+ * The eight symmetries of a rectangle (rotations and reflections), as seen on screen (x to the right, y downwards).
+ */
+public enum Orientation {
+
+	IDENTITY(false, false, false),
+	/**
+	 * Rotated by 90° clockwise.
+	 */
+	ROTATE_90(true, false, true),
+	ROTATE_180(false, true, true),
+	/**
+	 * Rotated by 90° counterclockwise.
+	 */
+	ROTATE_270(true, true, false),
+	/**
+	 * Mirrored left to right.
+	 */
+	FLIP_X(false, true, false),
+	/**
+	 * Mirrored top to bottom.
+	 */
+	FLIP_Y(false, false, true),
+	/**
+	 * Mirrored along the main diagonal.
+	 */
+	TRANSPOSE(true, false, false),
+	/**
+	 * Mirrored along the anti-diagonal.
+	 */
+	ANTI_TRANSPOSE(true, true, true);
+
+	// a view cell (x, y) shows the source cell (swap ? y : x, swap ? x : y), then mirrored per axis
+	private final boolean swap;
+	private final boolean mirrorX;
+	private final boolean mirrorY;
+
+	Orientation(final boolean swap, final boolean mirrorX, final boolean mirrorY) {
+		this.swap = swap;
+		this.mirrorX = mirrorX;
+		this.mirrorY = mirrorY;
+	}
+
+	/**
+	 * Whether width and height are exchanged.
+	 */
+	public boolean swapsAxes() {
+		return swap;
+	}
+
+	public int width(final int sourceWidth, final int sourceHeight) {
+		return swap ? sourceHeight : sourceWidth;
+	}
+
+	public int height(final int sourceWidth, final int sourceHeight) {
+		return swap ? sourceWidth : sourceHeight;
+	}
+
+	/**
+	 * Affine form {@code {originX, originY, xx, xy, yx, yy}}: the source of the view cell (x, y) is
+	 * {@code (originX + x * xx + y * yx, originY + x * xy + y * yy)}.
+	 */
+	int[] affine(final int sourceWidth, final int sourceHeight) {
+		var xx = swap ? 0 : 1;
+		var yx = swap ? 1 : 0;
+		var xy = swap ? 1 : 0;
+		var yy = swap ? 0 : 1;
+		var originX = 0;
+		var originY = 0;
+		if (mirrorX) {
+			originX = sourceWidth - 1;
+			xx = -xx;
+			yx = -yx;
+		}
+		if (mirrorY) {
+			originY = sourceHeight - 1;
+			xy = -xy;
+			yy = -yy;
+		}
+		return new int[]{originX, originY, xx, xy, yx, yy};
+	}
+
+}
@@ -0,0 +1,142 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+import de.knallisworld.aoc2024.support.lang.LongObjectHashMap;
+import org.springframework.lang.Nullable;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Copy-on-write variant of a grid: sparse overrides on top of a base, which is shared and never written.
+ * <p>
+ * Creating one is O(1) and each override costs one hash map entry, so many what-if variants (e.g. one extra
+ * obstacle each) can be tried side by side, in parallel as well. The base must not change while overlays are in use.
+ * An overlay itself is not thread-safe.
+ *
+ * @param <T> value type
+ */
+public final class OverlayGrid<T> implements ReadableGrid<T> {
+
+	// marks an override clearing the base value
+	private static final Object CLEARED = new Object();
+
+	private final ReadableGrid<T> base;
+	private final LongObjectHashMap<Object> overrides = new LongObjectHashMap<>();
+
+	private OverlayGrid(final ReadableGrid<T> base) {
+		this.base = base;
+	}
+
+	public static <T> OverlayGrid<T> of(final ReadableGrid<T> base) {
+		return new OverlayGrid<>(base);
+	}
+
+	public ReadableGrid<T> base() {
+		return base;
+	}
+
+	@Override
+	public int getWidth() {
+		return base.getWidth();
+	}
+
+	@Override
+	public int getHeight() {
+		return base.getHeight();
+	}
+
+	private boolean inBounds(final int x, final int y) {
+		return 0 <= x && x < getWidth() && 0 <= y && y < getHeight();
+	}
+
+	/**
+	 * Overrides the value of the position; {@code null} clears it.
+	 */
+	public void setValue(final int x, final int y, @Nullable final T value) {
+		if (!inBounds(x, y)) {
+			throw new IndexOutOfBoundsException("(%d,%d) out of bounds".formatted(x, y));
+		}
+		overrides.put(index(x, y), value != null ? value : CLEARED);
+	}
+
+	public void setValue(final Point2D<Integer> p, @Nullable final T value) {
+		setValue(p.getX(), p.getY(), value);
+	}
+
+	/**
+	 * Drops the override of the position, if any.
+	 */
+	public void revert(final int x, final int y) {
+		if (inBounds(x, y)) {
+			overrides.remove(index(x, y));
+		}
+	}
+
+	public void revert(final Point2D<Integer> p) {
+		revert(p.getX(), p.getY());
+	}
+
+	/**
+	 * Drops all overrides, so that the overlay can be reused for the next variant.
+	 */
+	public void reset() {
+		overrides.clear();
+	}
+
+	public int overrides() {
+		return overrides.size();
+	}
+
+	@Override
+	public boolean hasValue(final int x, final int y) {
+		if (!inBounds(x, y)) {
+			return false;
+		}
+		final var override = overrides.get(index(x, y));
+		if (override != null) {
+			return override != CLEARED;
+		}
+		return base.hasValue(x, y);
+	}
+
+	@Override
+	public Optional<T> getValue(final int x, final int y) {
+		if (!inBounds(x, y)) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(getValueAt(index(x, y)));
+	}
+
+	@Override
+	public T getValueRequired(final int x, final int y) {
+		if (!inBounds(x, y)) {
+			throw new IndexOutOfBoundsException("(%d,%d) out of bounds".formatted(x, y));
+		}
+		return requireNonNull(getValueAt(index(x, y)));
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T getValueAt(final int index) {
+		final var override = overrides.get(index);
+		if (override != null) {
+			return override != CLEARED ? (T) override : null;
+		}
+		return base.getValueAt(index);
+	}
+
+	/**
+	 * Dense copy with all overrides applied.
+	 */
+	public FixGrid<T> materialize(final Class<T> type) {
+		final var result = FixGrid.create(type, getHeight(), getWidth());
+		for (var index = 0; index < size(); index++) {
+			result.setValue(index, getValueAt(index));
+		}
+		return result;
+	}
+
+}
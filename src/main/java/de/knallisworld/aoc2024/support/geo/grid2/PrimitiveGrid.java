@@ -0,0 +1,347 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.lang.Math.floorMod;
+
+/**
+ * Base of the fixed-size grids backed by one flat, row-major primitive array (see {@link ByteGrid},
+ * {@link CharGrid}, {@link IntGrid} and {@link EnumGrid}).
+ * <p>
+ * Offers the same (boxed) API as {@link FixGrid}; the subclasses add unchecked primitive accessors by (x, y) or by
+ * linear index ({@code index = y * width + x}). Every cell within the bounds has a value.
+ *
+ * @param <T> boxed value type
+ */
+public abstract class PrimitiveGrid<T> {
+
+	final int width;
+	final int height;
+
+	private final TransformView<T> transformView;
+
+	@Nullable
+	private volatile NeighbourTable neighbourTable;
+
+	PrimitiveGrid(final int height, final int width) {
+		if (height < 1 || width < 1) {
+			throw new IllegalArgumentException("grid dimension must be greater than 0");
+		}
+		this.width = width;
+		this.height = height;
+		this.transformView = new TransformView<>(this);
+	}
+
+	/**
+	 * Boxed value type.
+	 */
+	public abstract Class<T> type();
+
+	abstract T getBoxed(int index);
+
+	abstract void setBoxed(int index, T value);
+
+	/**
+	 * Whether both cells hold the same value (unchecked).
+	 */
+	abstract boolean sameValue(int a, int b);
+
+	/**
+	 * Rotates the values of the four cells: {@code a <- b <- c <- d <- a}.
+	 */
+	abstract void rotate4(int a, int b, int c, int d);
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int size() {
+		return width * height;
+	}
+
+	public int index(final int x, final int y) {
+		return y * width + x;
+	}
+
+	public int index(final Point2D<Integer> p) {
+		return index(p.getX(), p.getY());
+	}
+
+	public int x(final int index) {
+		return index % width;
+	}
+
+	public int y(final int index) {
+		return index / width;
+	}
+
+	public Point2D<Integer> pos(final int index) {
+		return Point2D.create(x(index), y(index));
+	}
+
+	/**
+	 * Precomputed adjacency of this grid's dimension, built on first use.
+	 */
+	public NeighbourTable neighbours() {
+		var result = neighbourTable;
+		if (result == null) {
+			result = NeighbourTable.of(width, height);
+			neighbourTable = result;
+		}
+		return result;
+	}
+
+	public void forEachNeighbour4(final int index, final IntConsumer consumer) {
+		neighbours().forEachAdjacent4(index, consumer);
+	}
+
+	public void forEachNeighbour8(final int index, final IntConsumer consumer) {
+		neighbours().forEachAdjacent8(index, consumer);
+	}
+
+	public boolean hasValue(final Point2D<Integer> p) {
+		return hasValue(p.getX(), p.getY());
+	}
+
+	public boolean hasValue(final int x, final int y) {
+		return 0 <= x && x < width && 0 <= y && y < height;
+	}
+
+	public void setValue(final Point2D<Integer> p, final T value) {
+		setValue(p.getX(), p.getY(), value);
+	}
+
+	public void setValue(final int x, final int y, final T value) {
+		setBoxed(index(x, y), value);
+	}
+
+	public T getValueRequired(final Point2D<Integer> p) {
+		return getValueRequired(p.getX(), p.getY());
+	}
+
+	public T getValueRequired(final int x, final int y) {
+		if (!hasValue(x, y)) {
+			throw new IndexOutOfBoundsException("(%d/%d) is out of bounds".formatted(x, y));
+		}
+		return getBoxed(index(x, y));
+	}
+
+	public Optional<T> getValue(final Point2D<Integer> p) {
+		return getValue(p.getX(), p.getY());
+	}
+
+	public Optional<T> getValue(final int x, final int y) {
+		if (hasValue(x, y)) {
+			return Optional.of(getBoxed(index(x, y)));
+		} else {
+			return Optional.empty();
+		}
+	}
+
+	public FieldsView<T> fields() {
+		return new FieldsView<>(this);
+	}
+
+	public TransformView<T> transform() {
+		return transformView;
+	}
+
+	/**
+	 * Lazy read-only (boxing) view, see {@link GridView}.
+	 */
+	public GridView<T> view() {
+		return GridView.of(type(), width, height, (x, y) -> getBoxed(y * width + x));
+	}
+
+	/**
+	 * Boxed copy into a {@link FixGrid}, e.g. for interop with existing code.
+	 */
+	public FixGrid<T> toFixGrid() {
+		final var result = FixGrid.create(type(), height, width);
+		for (var i = 0; i < size(); i++) {
+			result.setValue(x(i), y(i), getBoxed(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Resolves the clamped, inclusive sub region as {@code [offsetX, offsetY, width, height]}.
+	 */
+	int[] subRegion(final Point2D<Integer> topLeft, final Point2D<Integer> bottomRight) {
+		final var offsetY = Math.max(topLeft.getY(), 0);
+		final var offsetX = Math.max(topLeft.getX(), 0);
+		final var limitY = Math.min(bottomRight.getY(), height - 1);
+		final var limitX = Math.min(bottomRight.getX(), width - 1);
+		return new int[]{offsetX, offsetY, limitX - offsetX + 1, limitY - offsetY + 1};
+	}
+
+	public String toString(final BiFunction<Point2D<Integer>, T, String> renderer) {
+		final var sb = new StringBuilder();
+		for (var y = 0; y < height; y++) {
+			for (var x = 0; x < width; x++) {
+				sb.append(renderer.apply(Point2D.create(x, y), getBoxed(index(x, y))));
+			}
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+
+	public static class FieldsView<T> {
+
+		private final PrimitiveGrid<T> grid;
+
+		public FieldsView(final PrimitiveGrid<T> grid) {
+			this.grid = grid;
+		}
+
+		public Stream<FixGrid.FieldsView.Field<T>> stream() {
+			return IntStream
+				.range(0, grid.size())
+				.mapToObj(i -> new FixGrid.FieldsView.Field<>(grid.pos(i), grid.getBoxed(i)));
+		}
+
+		public Stream<FixGrid.FieldsView.Field<T>> row(final int searchY) {
+			final var y = floorMod(searchY, grid.height);
+			return IntStream
+				.range(0, grid.width)
+				.mapToObj(x -> new FixGrid.FieldsView.Field<>(Point2D.create(x, y), grid.getBoxed(grid.index(x, y))));
+		}
+
+		public void forEach(final Consumer<FixGrid.FieldsView.Field<T>> consumer) {
+			stream().forEach(consumer);
+		}
+
+		public Stream<Point2D<Integer>> getAdjacents4(final Point2D<Integer> p) {
+			return p.getAdjacents4()
+					.filter(grid::hasValue);
+		}
+
+		public Stream<Point2D<Integer>> getAdjacents8(final Point2D<Integer> p) {
+			return p.getAdjacents8()
+					.filter(grid::hasValue);
+		}
+
+		public Stream<Point2D<Integer>> getCluster4(final Point2D<Integer> p,
+													final Predicate<FixGrid.FieldsView.Field<T>> filter) {
+			final var visited = new BitSet(grid.size());
+			final var q = new ArrayDeque<Point2D<Integer>>();
+			final var cluster = Stream.<Point2D<Integer>>builder();
+			visited.set(grid.index(p));
+			q.add(p);
+			while (!q.isEmpty()) {
+				final var n = q.poll();
+				cluster.add(n);
+				getAdjacents4(n)
+					.filter(a -> !visited.get(grid.index(a)))
+					.filter(a -> filter.test(new FixGrid.FieldsView.Field<>(a, grid.getValueRequired(a))))
+					.forEach(a -> {
+						visited.set(grid.index(a));
+						q.add(a);
+					});
+			}
+			return cluster.build();
+		}
+
+		public Stream<Point2D<Integer>> topEdge() {
+			return IntStream.range(0, grid.getWidth())
+							.mapToObj(x -> Point2D.create(x, 0));
+		}
+
+		public Stream<Point2D<Integer>> bottomEdge() {
+			final var y = grid.getHeight() - 1;
+			return IntStream.range(0, grid.getWidth())
+							.mapToObj(x -> Point2D.create(x, y));
+		}
+
+		public Stream<Point2D<Integer>> leftEdge() {
+			return IntStream.range(0, grid.getHeight())
+							.mapToObj(y -> Point2D.create(0, y));
+		}
+
+		public Stream<Point2D<Integer>> rightEdge() {
+			final var x = grid.getWidth() - 1;
+			return IntStream.range(0, grid.getHeight())
+							.mapToObj(y -> Point2D.create(x, y));
+		}
+
+	}
+
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	public static class TransformView<T> {
+
+		private final PrimitiveGrid<T> grid;
+
+		@SuppressWarnings("UnusedReturnValue")
+		public TransformView<T> rotateRight() {
+			return rotateRight(1);
+		}
+
+		public TransformView<T> rotateRight(final int iterations) {
+			if (grid.getHeight() != grid.getWidth()) {
+				throw new IllegalStateException("grid dimension not supported");
+			}
+			final var n = grid.getHeight();
+			for (var a = 0; a < iterations; a++) {
+				for (int layer = 0; layer < n / 2; layer++) {
+					final var last = n - 1 - layer;
+					for (int i = layer; i < last; i++) {
+						final var offset = i - layer;
+						grid.rotate4(
+							grid.index(layer, i),
+							grid.index(last - offset, layer),
+							grid.index(last, last - offset),
+							grid.index(i, last)
+						);
+					}
+				}
+			}
+			return this;
+		}
+
+		@SuppressWarnings("UnusedReturnValue")
+		public TransformView<T> rotateLeft() {
+			return rotateLeft(1);
+		}
+
+		public TransformView<T> rotateLeft(final int iterations) {
+			if (grid.getHeight() != grid.getWidth()) {
+				throw new IllegalStateException("grid dimension not supported");
+			}
+			final var n = grid.getHeight();
+			for (var a = 0; a < iterations; a++) {
+				for (int layer = 0; layer < n / 2; layer++) {
+					final var last = n - 1 - layer;
+					for (int i = layer; i < last; i++) {
+						final var offset = i - layer;
+						grid.rotate4(
+							grid.index(layer, i),
+							grid.index(i, last),
+							grid.index(last, last - offset),
+							grid.index(last - offset, layer)
+						);
+					}
+				}
+			}
+			return this;
+		}
+
+	}
+
+}
@@ -0,0 +1,61 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+import org.springframework.lang.Nullable;
+
+import java.util.Optional;
+
+/**
+ * Read access of a bounded grid, e.g. a {@link FixGrid} or an {@link OverlayGrid} on top of it.
+ *
+ * @param <T> value type
+ */
+public interface ReadableGrid<T> {
+
+	int getWidth();
+
+	int getHeight();
+
+	default int size() {
+		return getWidth() * getHeight();
+	}
+
+	/**
+	 * Whether the position is within bounds and set.
+	 */
+	boolean hasValue(int x, int y);
+
+	default boolean hasValue(final Point2D<Integer> p) {
+		return hasValue(p.getX(), p.getY());
+	}
+
+	Optional<T> getValue(int x, int y);
+
+	default Optional<T> getValue(final Point2D<Integer> p) {
+		return getValue(p.getX(), p.getY());
+	}
+
+	T getValueRequired(int x, int y);
+
+	default T getValueRequired(final Point2D<Integer> p) {
+		return getValueRequired(p.getX(), p.getY());
+	}
+
+	/**
+	 * Row-major linear index of the position ({@code y * width + x}).
+	 */
+	default int index(final int x, final int y) {
+		return y * getWidth() + x;
+	}
+
+	default int index(final Point2D<Integer> p) {
+		return index(p.getX(), p.getY());
+	}
+
+	/**
+	 * Unchecked accessor by linear index; may return {@code null} for an unset field.
+	 */
+	@Nullable
+	T getValueAt(int index);
+
+}
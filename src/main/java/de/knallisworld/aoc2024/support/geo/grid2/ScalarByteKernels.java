@@ -0,0 +1,62 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import java.util.Arrays;
+
+/**
+ * Plain loop implementation, see {@link ByteKernels}.
+ */
+final class ScalarByteKernels implements ByteKernels {
+
+	static final ScalarByteKernels INSTANCE = new ScalarByteKernels();
+
+	private ScalarByteKernels() {
+	}
+
+	@Override
+	public int countEqual(final byte[] data, final int from, final int length, final byte value) {
+		var count = 0;
+		for (var i = from; i < from + length; i++) {
+			if (data[i] == value) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public int countEqualPairs(final byte[] data, final int a, final int b, final int length) {
+		var count = 0;
+		for (var i = 0; i < length; i++) {
+			if (data[a + i] == data[b + i]) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void equalMask(final byte[] data, final int from, final int length, final byte value, final long[] mask) {
+		Arrays.fill(mask, 0, ByteKernels.maskWords(length), 0L);
+		for (var i = 0; i < length; i++) {
+			if (data[from + i] == value) {
+				mask[i >>> 6] |= 1L << i;
+			}
+		}
+	}
+
+	@Override
+	public int countEqualMasked(final byte[] data,
+								final int from,
+								final int length,
+								final byte value,
+								final long[] mask) {
+		var count = 0;
+		for (var i = 0; i < length; i++) {
+			if (data[from + i] == value && (mask[i >>> 6] & (1L << i)) != 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,91 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * SIMD implementation using the (incubating) Vector API, see {@link ByteKernels}; only loaded if the module is
+ * available. Tails shorter than a vector fall back to scalar loops.
+ */
+final class VectorByteKernels implements ByteKernels {
+
+	static final VectorByteKernels INSTANCE = new VectorByteKernels();
+
+	// capped at 64 lanes (wider SVE hardware has more), so that a lane mask fits into one long (VectorMask.toLong)
+	// and never straddles two mask words
+	private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() <= 64
+		? ByteVector.SPECIES_PREFERRED
+		: ByteVector.SPECIES_512;
+	private static final int LANES = SPECIES.length();
+
+	private VectorByteKernels() {
+	}
+
+	@Override
+	public int countEqual(final byte[] data, final int from, final int length, final byte value) {
+		var count = 0;
+		var i = 0;
+		for (final var bound = SPECIES.loopBound(length); i < bound; i += LANES) {
+			count += ByteVector.fromArray(SPECIES, data, from + i)
+							   .compare(VectorOperators.EQ, value)
+							   .trueCount();
+		}
+		return count + ScalarByteKernels.INSTANCE.countEqual(data, from + i, length - i, value);
+	}
+
+	@Override
+	public int countEqualPairs(final byte[] data, final int a, final int b, final int length) {
+		var count = 0;
+		var i = 0;
+		for (final var bound = SPECIES.loopBound(length); i < bound; i += LANES) {
+			final var va = ByteVector.fromArray(SPECIES, data, a + i);
+			final var vb = ByteVector.fromArray(SPECIES, data, b + i);
+			count += va.compare(VectorOperators.EQ, vb).trueCount();
+		}
+		return count + ScalarByteKernels.INSTANCE.countEqualPairs(data, a + i, b + i, length - i);
+	}
+
+	@Override
+	public void equalMask(final byte[] data, final int from, final int length, final byte value, final long[] mask) {
+		Arrays.fill(mask, 0, ByteKernels.maskWords(length), 0L);
+		var i = 0;
+		for (final var bound = SPECIES.loopBound(length); i < bound; i += LANES) {
+			final var bits = ByteVector.fromArray(SPECIES, data, from + i)
+									   .compare(VectorOperators.EQ, value)
+									   .toLong();
+			mask[i >>> 6] |= bits << i;
+		}
+		for (; i < length; i++) {
+			if (data[from + i] == value) {
+				mask[i >>> 6] |= 1L << i;
+			}
+		}
+	}
+
+	@Override
+	public int countEqualMasked(final byte[] data,
+								final int from,
+								final int length,
+								final byte value,
+								final long[] mask) {
+		final var laneMask = LANES == 64 ? -1L : (1L << LANES) - 1;
+		var count = 0;
+		var i = 0;
+		for (final var bound = SPECIES.loopBound(length); i < bound; i += LANES) {
+			final var bits = ByteVector.fromArray(SPECIES, data, from + i)
+									   .compare(VectorOperators.EQ, value)
+									   .toLong();
+			count += Long.bitCount(bits & (mask[i >>> 6] >>> i) & laneMask);
+		}
+		for (; i < length; i++) {
+			if (data[from + i] == value && (mask[i >>> 6] & (1L << i)) != 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
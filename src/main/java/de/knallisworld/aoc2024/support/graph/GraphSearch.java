@@ -0,0 +1,407 @@
+package de.knallisworld.aoc2024.support.graph;
+
+import de.knallisworld.aoc2024.support.lang.LongLongHashMap;
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongPredicate;
+
+/**
+ * Shortest path searches over state spaces encoded as numbers.
+ * <p>
+ * Dense searches work on the states {@code 0..n-1} (e.g. a grid index, or {@code index * 4 + direction} for a maze
+ * with turn costs) using flat distance and predecessor arrays; {@link #dijkstra(long, LongEdges, LongPredicate)}
+ * covers sparse {@code long} states. Edge costs must not be negative.
+ */
+public final class GraphSearch {
+
+	public static final long UNREACHED = Long.MAX_VALUE;
+	public static final int NONE = -1;
+
+	/**
+	 * Unweighted successors of a state.
+	 */
+	@FunctionalInterface
+	public interface Neighbours {
+
+		void forEach(int state, IntConsumer consumer);
+
+	}
+
+	@FunctionalInterface
+	public interface EdgeConsumer {
+
+		void accept(int next, long cost);
+
+	}
+
+	/**
+	 * Weighted successors of a state.
+	 */
+	@FunctionalInterface
+	public interface Edges {
+
+		void forEach(int state, EdgeConsumer consumer);
+
+	}
+
+	@FunctionalInterface
+	public interface LongEdgeConsumer {
+
+		void accept(long next, long cost);
+
+	}
+
+	/**
+	 * Weighted successors of a sparse state.
+	 */
+	@FunctionalInterface
+	public interface LongEdges {
+
+		void forEach(long state, LongEdgeConsumer consumer);
+
+	}
+
+	public static final class Result {
+
+		private final long[] distances;
+		@Nullable
+		private final int[] predecessors;
+		private final int target;
+
+		Result(final long[] distances, @Nullable final int[] predecessors, final int target) {
+			this.distances = distances;
+			this.predecessors = predecessors;
+			this.target = target;
+		}
+
+		/**
+		 * Distance of the state, {@link #UNREACHED} if not reached (or not settled before the target).
+		 */
+		public long distance(final int state) {
+			return distances[state];
+		}
+
+		public boolean reached(final int state) {
+			return distances[state] != UNREACHED;
+		}
+
+		/**
+		 * The settled target, {@link #NONE} if none was configured or reached.
+		 */
+		public int target() {
+			return target;
+		}
+
+		/**
+		 * The states of the shortest path from a source to the given state (both inclusive), empty if not reached.
+		 */
+		public int[] path(final int state) {
+			if (predecessors == null) {
+				throw new IllegalStateException("predecessors not recorded");
+			}
+			if (!reached(state)) {
+				return new int[0];
+			}
+			var length = 0;
+			for (var s = state; s != NONE; s = predecessors[s]) {
+				length++;
+			}
+			final var result = new int[length];
+			for (var s = state; s != NONE; s = predecessors[s]) {
+				result[--length] = s;
+			}
+			return result;
+		}
+
+	}
+
+	/**
+	 * All shortest paths: every predecessor on any shortest path is recorded, as linked lists in flat arrays.
+	 */
+	public static final class PredecessorDag {
+
+		private final long[] distances;
+		private final int[] heads;
+		private int[] edgeFrom;
+		private int[] edgeNext;
+		private int edges;
+
+		PredecessorDag(final int states) {
+			this.distances = new long[states];
+			this.heads = new int[states];
+			this.edgeFrom = new int[Math.max(16, states)];
+			this.edgeNext = new int[edgeFrom.length];
+			Arrays.fill(distances, UNREACHED);
+			Arrays.fill(heads, NONE);
+		}
+
+		void add(final int state, final int predecessor) {
+			if (edges == edgeFrom.length) {
+				edgeFrom = Arrays.copyOf(edgeFrom, edges * 2);
+				edgeNext = Arrays.copyOf(edgeNext, edges * 2);
+			}
+			edgeFrom[edges] = predecessor;
+			edgeNext[edges] = heads[state];
+			heads[state] = edges++;
+		}
+
+		void reset(final int state) {
+			// dropped edges stay in the arrays unreferenced
+			heads[state] = NONE;
+		}
+
+		public long distance(final int state) {
+			return distances[state];
+		}
+
+		public boolean reached(final int state) {
+			return distances[state] != UNREACHED;
+		}
+
+		public void forEachPredecessor(final int state, final IntConsumer consumer) {
+			for (var e = heads[state]; e != NONE; e = edgeNext[e]) {
+				consumer.accept(edgeFrom[e]);
+			}
+		}
+
+		/**
+		 * All states on any shortest path to the given states.
+		 */
+		public BitSet backtrack(final int... targets) {
+			final var result = new BitSet(distances.length);
+			final var stack = new int[distances.length];
+			var top = 0;
+			for (final var target : targets) {
+				if (reached(target) && !result.get(target)) {
+					result.set(target);
+					stack[top++] = target;
+				}
+			}
+			while (top > 0) {
+				final var state = stack[--top];
+				for (var e = heads[state]; e != NONE; e = edgeNext[e]) {
+					final var p = edgeFrom[e];
+					if (!result.get(p)) {
+						result.set(p);
+						stack[top++] = p;
+					}
+				}
+			}
+			return result;
+		}
+
+	}
+
+	private GraphSearch() {
+	}
+
+	private static SearchOptions buildOptions(final Consumer<SearchOptions.SearchOptionsBuilder> configurer) {
+		final var builder = SearchOptions.builder();
+		configurer.accept(builder);
+		return builder.build();
+	}
+
+	/**
+	 * Breadth-first search, every edge costs 1.
+	 */
+	public static Result bfs(final int states,
+							 final int[] sources,
+							 final Neighbours neighbours,
+							 final Consumer<SearchOptions.SearchOptionsBuilder> configurer) {
+		final var options = buildOptions(configurer);
+		final var target = options.getTarget();
+		final var distances = new long[states];
+		final var predecessors = options.isPredecessors() ? new int[states] : null;
+		Arrays.fill(distances, UNREACHED);
+		final var queue = new int[states];
+		final var tail = new int[1];
+		for (final var source : sources) {
+			if (distances[source] == UNREACHED) {
+				distances[source] = 0;
+				if (predecessors != null) {
+					predecessors[source] = NONE;
+				}
+				queue[tail[0]++] = source;
+			}
+		}
+		var head = 0;
+		while (head < tail[0]) {
+			final var state = queue[head++];
+			if (target != null && target.test(state)) {
+				return new Result(distances, predecessors, state);
+			}
+			final var next = distances[state] + 1;
+			neighbours.forEach(state, n -> {
+				if (distances[n] == UNREACHED) {
+					distances[n] = next;
+					if (predecessors != null) {
+						predecessors[n] = state;
+					}
+					queue[tail[0]++] = n;
+				}
+			});
+		}
+		return new Result(distances, predecessors, NONE);
+	}
+
+	public static Result bfs(final int states, final int source, final Neighbours neighbours) {
+		return bfs(states, new int[]{source}, neighbours, SearchOptions.withDefault());
+	}
+
+	/**
+	 * Dijkstra's algorithm.
+	 */
+	public static Result dijkstra(final int states,
+								  final int[] sources,
+								  final Edges edges,
+								  final Consumer<SearchOptions.SearchOptionsBuilder> configurer) {
+		return search(states, sources, edges, _ -> 0, buildOptions(configurer));
+	}
+
+	public static Result dijkstra(final int states, final int source, final Edges edges) {
+		return dijkstra(states, new int[]{source}, edges, SearchOptions.withDefault());
+	}
+
+	/**
+	 * A* search towards the target; the heuristic must be consistent (never overestimating, and decreasing by at most
+	 * the edge's cost along any edge).
+	 */
+	public static Result aStar(final int states,
+							   final int source,
+							   final Edges edges,
+							   final IntToLongFunction heuristic,
+							   final IntPredicate target,
+							   final boolean predecessors) {
+		return search(states, new int[]{source}, edges, heuristic, SearchOptions.builder()
+																			   .target(target)
+																			   .predecessors(predecessors)
+																			   .build());
+	}
+
+	private static Result search(final int states,
+								 final int[] sources,
+								 final Edges edges,
+								 final IntToLongFunction heuristic,
+								 final SearchOptions options) {
+		final var target = options.getTarget();
+		final var distances = new long[states];
+		final var predecessors = options.isPredecessors() ? new int[states] : null;
+		Arrays.fill(distances, UNREACHED);
+		final var heap = new PrimitiveHeap();
+		for (final var source : sources) {
+			distances[source] = 0;
+			if (predecessors != null) {
+				predecessors[source] = NONE;
+			}
+			heap.add(heuristic.applyAsLong(source), source);
+		}
+		final var settled = new BitSet(states);
+		while (!heap.isEmpty()) {
+			final var state = (int) heap.poll();
+			if (settled.get(state)) {
+				// stale entry
+				continue;
+			}
+			settled.set(state);
+			if (target != null && target.test(state)) {
+				return new Result(distances, predecessors, state);
+			}
+			final var distance = distances[state];
+			edges.forEach(state, (next, cost) -> {
+				final var d = distance + cost;
+				if (d < distances[next]) {
+					distances[next] = d;
+					if (predecessors != null) {
+						predecessors[next] = state;
+					}
+					heap.add(d + heuristic.applyAsLong(next), next);
+				}
+			});
+		}
+		return new Result(distances, predecessors, NONE);
+	}
+
+	/**
+	 * Dijkstra's algorithm recording all shortest paths. With a target, the search stops once every state with the
+	 * target's distance is settled.
+	 */
+	public static PredecessorDag dijkstraAll(final int states,
+											 final int[] sources,
+											 final Edges edges,
+											 final Consumer<SearchOptions.SearchOptionsBuilder> configurer) {
+		final var target = buildOptions(configurer).getTarget();
+		final var dag = new PredecessorDag(states);
+		final var distances = dag.distances;
+		final var heap = new PrimitiveHeap();
+		for (final var source : sources) {
+			distances[source] = 0;
+			heap.add(0, source);
+		}
+		final var settled = new BitSet(states);
+		var limit = UNREACHED;
+		while (!heap.isEmpty()) {
+			if (heap.peekPriority() > limit) {
+				break;
+			}
+			final var state = (int) heap.poll();
+			if (settled.get(state)) {
+				continue;
+			}
+			settled.set(state);
+			if (target != null && limit == UNREACHED && target.test(state)) {
+				limit = distances[state];
+			}
+			final var distance = distances[state];
+			edges.forEach(state, (next, cost) -> {
+				final var d = distance + cost;
+				if (d < distances[next]) {
+					distances[next] = d;
+					dag.reset(next);
+					dag.add(next, state);
+					heap.add(d, next);
+				} else if (d == distances[next]) {
+					dag.add(next, state);
+				}
+			});
+		}
+		return dag;
+	}
+
+	/**
+	 * Dijkstra's algorithm over sparse states, the distances are kept in a hash map.
+	 *
+	 * @return the distance of the first reached target or {@link #UNREACHED}
+	 */
+	public static long dijkstra(final long source, final LongEdges edges, final LongPredicate target) {
+		final var distances = new LongLongHashMap();
+		final var heap = new PrimitiveHeap();
+		distances.put(source, 0);
+		heap.add(0, source);
+		while (!heap.isEmpty()) {
+			final var distance = heap.peekPriority();
+			final var state = heap.poll();
+			if (distance > distances.get(state, UNREACHED)) {
+				// stale entry
+				continue;
+			}
+			if (target.test(state)) {
+				return distance;
+			}
+			edges.forEach(state, (next, cost) -> {
+				final var d = distance + cost;
+				if (d < distances.get(next, UNREACHED)) {
+					distances.put(next, d);
+					heap.add(d, next);
+				}
+			});
+		}
+		return UNREACHED;
+	}
+
+}
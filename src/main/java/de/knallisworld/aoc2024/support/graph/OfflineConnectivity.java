@@ -0,0 +1,105 @@
+package de.knallisworld.aoc2024.support.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Answers "which blocking event disconnects two states" for a whole sequence of events in one pass.
+ * <p>
+ * Instead of re-running a search per prefix of the events, all events are applied first and then reverted in reverse
+ * order, merging each re-opened state with its open neighbours in a {@link UnionFind}. The first reverted event that
+ * reconnects both states is the one which disconnected them. Near-linear in the number of states and events.
+ */
+public final class OfflineConnectivity {
+
+	public static final int NONE = -1;
+
+	private OfflineConnectivity() {
+	}
+
+	/**
+	 * @param states     number of states
+	 * @param neighbours adjacency of the states (without regard to the events), must be symmetric
+	 * @param events     states getting blocked, in order; repeated states count from their first event
+	 * @return index of the event after which {@code a} and {@code b} are disconnected, {@link #NONE} if they stay
+	 * connected
+	 * @throws IllegalArgumentException if both states are not connected before the first event
+	 */
+	public static int firstDisconnecting(final int states,
+										 final GraphSearch.Neighbours neighbours,
+										 final int[] events,
+										 final int a,
+										 final int b) {
+		final var firstEvent = new int[states];
+		Arrays.fill(firstEvent, NONE);
+		for (var i = 0; i < events.length; i++) {
+			if (firstEvent[events[i]] == NONE) {
+				firstEvent[events[i]] = i;
+			}
+		}
+
+		final var uf = new UnionFind(states);
+		final var open = new BitSet(states);
+		for (var s = 0; s < states; s++) {
+			if (firstEvent[s] == NONE) {
+				open.set(s);
+			}
+		}
+		for (var s = open.nextSetBit(0); s >= 0; s = open.nextSetBit(s + 1)) {
+			final var state = s;
+			neighbours.forEach(state, n -> {
+				if (open.get(n)) {
+					uf.union(state, n);
+				}
+			});
+		}
+		if (open.get(a) && open.get(b) && uf.connected(a, b)) {
+			return NONE;
+		}
+
+		for (var i = events.length - 1; i >= 0; i--) {
+			final var state = events[i];
+			if (firstEvent[state] != i) {
+				continue;
+			}
+			open.set(state);
+			neighbours.forEach(state, n -> {
+				if (open.get(n)) {
+					uf.union(state, n);
+				}
+			});
+			if (open.get(a) && open.get(b) && uf.connected(a, b)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("states are not connected before the first event");
+	}
+
+	/**
+	 * Like {@link #firstDisconnecting(int, GraphSearch.Neighbours, int[], int, int)} for the cells of a row-major grid,
+	 * moving in 4 directions.
+	 */
+	public static int firstDisconnectingInGrid(final int width,
+											   final int height,
+											   final int[] events,
+											   final int a,
+											   final int b) {
+		final var size = width * height;
+		return firstDisconnecting(size, (index, consumer) -> {
+			final var x = index % width;
+			if (index >= width) {
+				consumer.accept(index - width);
+			}
+			if (x < width - 1) {
+				consumer.accept(index + 1);
+			}
+			if (index + width < size) {
+				consumer.accept(index + width);
+			}
+			if (x > 0) {
+				consumer.accept(index - 1);
+			}
+		}, events, a, b);
+	}
+
+}
@@ -0,0 +1,114 @@
+package de.knallisworld.aoc2024.support.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap of {@code long} values ordered by a {@code long} priority, without any boxing.
+ * <p>
+ * There is no decrease-key: searches push a state again with its better priority and skip the stale entries when
+ * polling them (lazy deletion). Not thread-safe.
+ */
+public class PrimitiveHeap {
+
+	private long[] priorities;
+	private long[] values;
+	private int size;
+
+	public PrimitiveHeap() {
+		this(64);
+	}
+
+	public PrimitiveHeap(final int initialCapacity) {
+		this.priorities = new long[Math.max(1, initialCapacity)];
+		this.values = new long[priorities.length];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public void add(final long priority, final long value) {
+		if (size == priorities.length) {
+			priorities = Arrays.copyOf(priorities, size * 2);
+			values = Arrays.copyOf(values, size * 2);
+		}
+		// sift up
+		var i = size++;
+		while (i > 0) {
+			final var parent = (i - 1) >>> 1;
+			if (priorities[parent] <= priority) {
+				break;
+			}
+			priorities[i] = priorities[parent];
+			values[i] = values[parent];
+			i = parent;
+		}
+		priorities[i] = priority;
+		values[i] = value;
+	}
+
+	/**
+	 * Priority of the minimum.
+	 */
+	public long peekPriority() {
+		ensureNotEmpty();
+		return priorities[0];
+	}
+
+	/**
+	 * Value of the minimum.
+	 */
+	public long peekValue() {
+		ensureNotEmpty();
+		return values[0];
+	}
+
+	/**
+	 * Removes the minimum.
+	 *
+	 * @return the value of the minimum
+	 */
+	public long poll() {
+		ensureNotEmpty();
+		final var result = values[0];
+		final var last = --size;
+		final var priority = priorities[last];
+		final var value = values[last];
+		// sift down
+		var i = 0;
+		while (true) {
+			var child = 2 * i + 1;
+			if (child >= last) {
+				break;
+			}
+			if (child + 1 < last && priorities[child + 1] < priorities[child]) {
+				child++;
+			}
+			if (priority <= priorities[child]) {
+				break;
+			}
+			priorities[i] = priorities[child];
+			values[i] = values[child];
+			i = child;
+		}
+		priorities[i] = priority;
+		values[i] = value;
+		return result;
+	}
+
+	private void ensureNotEmpty() {
+		if (size == 0) {
+			throw new NoSuchElementException("heap is empty");
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+package de.knallisworld.aoc2024.support.graph;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+@Getter
+@Builder
+public class SearchOptions {
+
+	/**
+	 * Whether to record a predecessor per state, required for {@link GraphSearch.Result#path(int)}.
+	 */
+	@Builder.Default
+	private boolean predecessors = false;
+
+	/**
+	 * Optional target; the search stops as soon as the first matching state is settled (for all shortest paths: once
+	 * no other state can be reached with the same distance).
+	 */
+	@Nullable
+	@Builder.Default
+	private IntPredicate target = null;
+
+	/**
+	 * default options
+	 */
+	public static Consumer<SearchOptionsBuilder> withDefault() {
+		return o -> {
+		};
+	}
+
+	/**
+	 * Stops at the first matching state.
+	 */
+	public static Consumer<SearchOptionsBuilder> until(final IntPredicate target) {
+		return o -> o.target(target);
+	}
+
+}
@@ -0,0 +1,85 @@
+package de.knallisworld.aoc2024.support.graph;
+
+/**
+ * Disjoint sets over the elements {@code 0..n-1} (union by size, path halving).
+ * <p>
+ * Not thread-safe in general, but unions of elements of disjoint index ranges never touch each other's state, so
+ * those may run concurrently (e.g. per strip of a grid).
+ */
+public class UnionFind {
+
+	private final int[] parent;
+	private final int[] size;
+
+	public UnionFind(final int n) {
+		this.parent = new int[n];
+		this.size = new int[n];
+		for (var i = 0; i < n; i++) {
+			parent[i] = i;
+			size[i] = 1;
+		}
+	}
+
+	public int find(final int element) {
+		var e = element;
+		while (parent[e] != e) {
+			parent[e] = parent[parent[e]];
+			e = parent[e];
+		}
+		return e;
+	}
+
+	/**
+	 * Merges the sets of both elements.
+	 *
+	 * @return true if both elements were in different sets before
+	 */
+	public boolean union(final int a, final int b) {
+		var rootA = find(a);
+		var rootB = find(b);
+		if (rootA == rootB) {
+			return false;
+		}
+		if (size[rootA] < size[rootB]) {
+			final var temp = rootA;
+			rootA = rootB;
+			rootB = temp;
+		}
+		parent[rootB] = rootA;
+		size[rootA] += size[rootB];
+		return true;
+	}
+
+	public boolean connected(final int a, final int b) {
+		return find(a) == find(b);
+	}
+
+	/**
+	 * Number of elements in the set of the given element.
+	 */
+	public int sizeOf(final int element) {
+		return size[find(element)];
+	}
+
+	public boolean isRoot(final int element) {
+		return parent[element] == element;
+	}
+
+	/**
+	 * Number of disjoint sets, O(n).
+	 */
+	public int sets() {
+		var result = 0;
+		for (var i = 0; i < parent.length; i++) {
+			if (parent[i] == i) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	public int elements() {
+		return parent.length;
+	}
+
+}
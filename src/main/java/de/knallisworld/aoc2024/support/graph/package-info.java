@@ -0,0 +1,4 @@
+@NonNullApi
+package de.knallisworld.aoc2024.support.graph;
+
+import org.springframework.lang.NonNullApi;
@@ -0,0 +1,168 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Cycle detection over a deterministic sequence of states, e.g. {@link Zobrist} hashes of a simulation.
+ * <p>
+ * A streaming detector is offered each state in order: {@link #brent()} needs constant memory and reports a cycle
+ * within a few cycle lengths after entering it, {@link #seenSet()} remembers every state and reports the first
+ * repetition. If the successor function is available, {@link #floyd(long, LongUnaryOperator)} and
+ * {@link #brent(long, LongUnaryOperator)} also find where the cycle starts.
+ */
+public interface CycleDetector {
+
+	/**
+	 * @param start  index of the first state on the cycle
+	 * @param length number of states on the cycle
+	 */
+	record Cycle(long start, long length) {
+	}
+
+	/**
+	 * Offers the next state.
+	 *
+	 * @return {@code true} once a cycle has been detected
+	 */
+	boolean offer(long state);
+
+	/**
+	 * Length of the detected cycle, {@code 0} if none yet.
+	 */
+	long cycleLength();
+
+	/**
+	 * Brent's algorithm, streaming: O(1) memory.
+	 */
+	static CycleDetector brent() {
+		return new CycleDetector() {
+
+			private long tortoise;
+			private boolean started;
+			private long power = 1;
+			private long lambda;
+			private long length;
+
+			@Override
+			public boolean offer(final long state) {
+				if (length > 0) {
+					return true;
+				}
+				if (!started) {
+					tortoise = state;
+					started = true;
+					return false;
+				}
+				lambda++;
+				if (state == tortoise) {
+					length = lambda;
+					return true;
+				}
+				if (lambda == power) {
+					tortoise = state;
+					power <<= 1;
+					lambda = 0;
+				}
+				return false;
+			}
+
+			@Override
+			public long cycleLength() {
+				return length;
+			}
+
+		};
+	}
+
+	/**
+	 * Remembers every state: O(n) memory, reports the first repetition.
+	 */
+	static CycleDetector seenSet() {
+		return new CycleDetector() {
+
+			private final LongLongHashMap seen = new LongLongHashMap();
+			private long steps;
+			private long length;
+
+			@Override
+			public boolean offer(final long state) {
+				if (length > 0) {
+					return true;
+				}
+				final var first = seen.get(state, -1);
+				if (first >= 0) {
+					length = steps - first;
+					return true;
+				}
+				seen.put(state, steps++);
+				return false;
+			}
+
+			@Override
+			public long cycleLength() {
+				return length;
+			}
+
+		};
+	}
+
+	/**
+	 * Floyd's tortoise and hare over {@code x0, f(x0), f(f(x0)), ...}; the sequence must eventually cycle.
+	 */
+	static Cycle floyd(final long x0, final LongUnaryOperator f) {
+		var tortoise = f.applyAsLong(x0);
+		var hare = f.applyAsLong(tortoise);
+		while (tortoise != hare) {
+			tortoise = f.applyAsLong(tortoise);
+			hare = f.applyAsLong(f.applyAsLong(hare));
+		}
+		var start = 0L;
+		tortoise = x0;
+		while (tortoise != hare) {
+			tortoise = f.applyAsLong(tortoise);
+			hare = f.applyAsLong(hare);
+			start++;
+		}
+		var length = 1L;
+		hare = f.applyAsLong(tortoise);
+		while (tortoise != hare) {
+			hare = f.applyAsLong(hare);
+			length++;
+		}
+		return new Cycle(start, length);
+	}
+
+	/**
+	 * Brent's algorithm over {@code x0, f(x0), f(f(x0)), ...}; the sequence must eventually cycle. Usually fewer
+	 * evaluations of {@code f} than {@link #floyd(long, LongUnaryOperator)}.
+	 */
+	static Cycle brent(final long x0, final LongUnaryOperator f) {
+		var power = 1L;
+		var length = 1L;
+		var tortoise = x0;
+		var hare = f.applyAsLong(x0);
+		while (tortoise != hare) {
+			if (power == length) {
+				tortoise = hare;
+				power <<= 1;
+				length = 0;
+			}
+			hare = f.applyAsLong(hare);
+			length++;
+		}
+		// hare runs one cycle ahead, then both meet at the start
+		tortoise = x0;
+		hare = x0;
+		for (var i = 0L; i < length; i++) {
+			hare = f.applyAsLong(hare);
+		}
+		var start = 0L;
+		while (tortoise != hare) {
+			tortoise = f.applyAsLong(tortoise);
+			hare = f.applyAsLong(hare);
+			start++;
+		}
+		return new Cycle(start, length);
+	}
+
+}
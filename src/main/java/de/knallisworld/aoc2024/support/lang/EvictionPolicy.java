@@ -0,0 +1,25 @@
+package de.knallisworld.aoc2024.support.lang;
+
+/**
+ * Which value a bounded memoization drops when full, see {@link MemoizationOptions#getMaxSize()}.
+ */
+public enum EvictionPolicy {
+
+	/**
+	 * Least recently used.
+	 */
+	LRU,
+
+	/**
+	 * Least frequently used; the oldest one among equally frequent.
+	 */
+	LFU,
+
+	/**
+	 * Window TinyLFU: new values enter a small LRU window; leaving it, a value is only admitted to the main LRU if it
+	 * was requested more often than the main's next victim (estimated by an aging frequency sketch). Keeps a hot
+	 * working set against scans of one-off keys.
+	 */
+	TINY_LFU
+
+}
@@ -0,0 +1,247 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import org.springframework.lang.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Bookkeeping of an {@link EvictionPolicy}, O(1) per call; tracks the keys only, not the values.
+ * <p>
+ * Not thread-safe.
+ */
+interface EvictionTracker<K> {
+
+	static <K> EvictionTracker<K> of(final EvictionPolicy policy, final int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be positive");
+		}
+		return switch (policy) {
+			case LRU -> new Lru<>(maxSize);
+			case LFU -> new Lfu<>(maxSize);
+			case TINY_LFU -> new TinyLfu<>(maxSize);
+		};
+	}
+
+	/**
+	 * A tracked key has been read.
+	 */
+	void access(K key);
+
+	/**
+	 * A new key wants to be stored.
+	 *
+	 * @return the key to drop: an evicted one, the new key itself if it is rejected, or {@code null}
+	 */
+	@Nullable
+	K admit(K key);
+
+	final class Lru<K> implements EvictionTracker<K> {
+
+		private final int maxSize;
+		private final LinkedHashMap<K, Boolean> order = new LinkedHashMap<>(16, 0.75f, true);
+
+		Lru(final int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		public void access(final K key) {
+			order.get(key);
+		}
+
+		@Override
+		@Nullable
+		public K admit(final K key) {
+			order.put(key, Boolean.TRUE);
+			return order.size() > maxSize ? removeEldest() : null;
+		}
+
+		@Nullable
+		K removeEldest() {
+			final var it = order.keySet().iterator();
+			if (!it.hasNext()) {
+				return null;
+			}
+			final var eldest = it.next();
+			it.remove();
+			return eldest;
+		}
+
+		@Nullable
+		K eldest() {
+			final var it = order.keySet().iterator();
+			return it.hasNext() ? it.next() : null;
+		}
+
+		void remove(final K key) {
+			order.remove(key);
+		}
+
+		int size() {
+			return order.size();
+		}
+
+	}
+
+	/**
+	 * Buckets of keys per frequency, each in insertion order.
+	 */
+	final class Lfu<K> implements EvictionTracker<K> {
+
+		private final int maxSize;
+		private final Map<K, Integer> frequencies = new HashMap<>();
+		private final Map<Integer, LinkedHashSet<K>> buckets = new HashMap<>();
+		private int minFrequency;
+
+		Lfu(final int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		public void access(final K key) {
+			final var frequency = frequencies.get(key);
+			if (frequency == null) {
+				return;
+			}
+			final var bucket = buckets.get(frequency);
+			bucket.remove(key);
+			if (bucket.isEmpty()) {
+				buckets.remove(frequency);
+				if (minFrequency == frequency) {
+					minFrequency = frequency + 1;
+				}
+			}
+			frequencies.put(key, frequency + 1);
+			buckets.computeIfAbsent(frequency + 1, _ -> new LinkedHashSet<>()).add(key);
+		}
+
+		@Override
+		@Nullable
+		public K admit(final K key) {
+			K evicted = null;
+			if (frequencies.size() >= maxSize) {
+				final var bucket = buckets.get(minFrequency);
+				final var it = bucket.iterator();
+				evicted = it.next();
+				it.remove();
+				if (bucket.isEmpty()) {
+					buckets.remove(minFrequency);
+				}
+				frequencies.remove(evicted);
+			}
+			frequencies.put(key, 1);
+			buckets.computeIfAbsent(1, _ -> new LinkedHashSet<>()).add(key);
+			minFrequency = 1;
+			return evicted;
+		}
+
+	}
+
+	final class TinyLfu<K> implements EvictionTracker<K> {
+
+		private final FrequencySketch sketch;
+		private final Lru<K> window;
+		private final Lru<K> main;
+		private final int windowSize;
+		private final int mainSize;
+
+		TinyLfu(final int maxSize) {
+			this.windowSize = Math.max(1, maxSize / 100);
+			this.mainSize = maxSize - windowSize;
+			this.sketch = new FrequencySketch(maxSize);
+			// never evict on their own, this tracker decides
+			this.window = new Lru<>(Integer.MAX_VALUE);
+			this.main = new Lru<>(Integer.MAX_VALUE);
+		}
+
+		@Override
+		public void access(final K key) {
+			sketch.increment(key);
+			window.access(key);
+			main.access(key);
+		}
+
+		@Override
+		@Nullable
+		public K admit(final K key) {
+			sketch.increment(key);
+			window.admit(key);
+			if (window.size() <= windowSize) {
+				return null;
+			}
+			final var candidate = window.removeEldest();
+			if (candidate == null) {
+				return null;
+			}
+			if (main.size() < mainSize) {
+				main.admit(candidate);
+				return null;
+			}
+			final var victim = main.eldest();
+			if (victim != null && sketch.frequency(candidate) > sketch.frequency(victim)) {
+				main.remove(victim);
+				main.admit(candidate);
+				return victim;
+			}
+			return candidate;
+		}
+
+	}
+
+	/**
+	 * Count-min sketch with 4 rows of saturating counters (max 15), halved after {@code 10 * maxSize} increments so
+	 * that old popularity fades.
+	 */
+	final class FrequencySketch {
+
+		private static final long[] SEEDS = {
+			0x97CB3127E7C4B1A5L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+		};
+
+		private final byte[][] counters;
+		private final int mask;
+		private final int sampleSize;
+		private int increments;
+
+		FrequencySketch(final int maxSize) {
+			final var width = Integer.highestOneBit(Math.max(16, Math.min(maxSize, 1 << 24)) * 2 - 1);
+			this.counters = new byte[SEEDS.length][width];
+			this.mask = width - 1;
+			this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * maxSize);
+		}
+
+		private int slot(final int row, final Object key) {
+			return (int) Zobrist.mix(key.hashCode() * SEEDS[row]) & mask;
+		}
+
+		void increment(final Object key) {
+			for (var row = 0; row < counters.length; row++) {
+				final var slot = slot(row, key);
+				if (counters[row][slot] < 15) {
+					counters[row][slot]++;
+				}
+			}
+			if (++increments >= sampleSize) {
+				for (final var row : counters) {
+					for (var i = 0; i < row.length; i++) {
+						row[i] >>= 1;
+					}
+				}
+				increments /= 2;
+			}
+		}
+
+		int frequency(final Object key) {
+			var result = Integer.MAX_VALUE;
+			for (var row = 0; row < counters.length; row++) {
+				result = Math.min(result, counters[row][slot(row, key)]);
+			}
+			return result;
+		}
+
+	}
+
+}
@@ -0,0 +1,144 @@
+package de.knallisworld.aoc2024.support.lang;
+
+/**
+ * Hash map with primitive {@code long} keys and values (open addressing, linear probing).
+ * <p>
+ * Not thread-safe.
+ */
+public class LongLongHashMap {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private long[] values;
+	private boolean[] used;
+	private int size;
+	private int mask;
+
+	public LongLongHashMap() {
+		this(MIN_CAPACITY);
+	}
+
+	public LongLongHashMap(final int expectedSize) {
+		allocate(capacityFor(expectedSize));
+	}
+
+	private static int capacityFor(final int expectedSize) {
+		// load factor 0.5
+		final var capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize) * 2 - 1) << 1;
+		if (capacity <= 0) {
+			throw new IllegalStateException("capacity exceeded");
+		}
+		return capacity;
+	}
+
+	private void allocate(final int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+	}
+
+	private int slotOf(final long key) {
+		var slot = LongObjectHashMap.hash(key) & mask;
+		while (used[slot]) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -slot - 1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean containsKey(final long key) {
+		return slotOf(key) >= 0;
+	}
+
+	public long get(final long key, final long defaultValue) {
+		final var slot = slotOf(key);
+		return slot >= 0 ? values[slot] : defaultValue;
+	}
+
+	public void put(final long key, final long value) {
+		final var slot = slotOf(key);
+		if (slot >= 0) {
+			values[slot] = value;
+			return;
+		}
+		final var free = -slot - 1;
+		keys[free] = key;
+		values[free] = value;
+		used[free] = true;
+		if (++size * 2 > keys.length) {
+			rehash(keys.length * 2);
+		}
+	}
+
+	/**
+	 * @return true if the key was present
+	 */
+	public boolean remove(final long key) {
+		var slot = slotOf(key);
+		if (slot < 0) {
+			return false;
+		}
+		// backward shift deletion keeps probe sequences intact without tombstones
+		var next = (slot + 1) & mask;
+		while (used[next]) {
+			final var home = LongObjectHashMap.hash(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		used[slot] = false;
+		size--;
+		return true;
+	}
+
+	public void clear() {
+		allocate(MIN_CAPACITY);
+		size = 0;
+	}
+
+	private void rehash(final int capacity) {
+		final var oldKeys = keys;
+		final var oldValues = values;
+		final var oldUsed = used;
+		allocate(capacity);
+		for (var i = 0; i < oldUsed.length; i++) {
+			if (oldUsed[i]) {
+				final var slot = -slotOf(oldKeys[i]) - 1;
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+				used[slot] = true;
+			}
+		}
+	}
+
+	@FunctionalInterface
+	public interface EntryConsumer {
+
+		void accept(long key, long value);
+
+	}
+
+	public void forEach(final EntryConsumer consumer) {
+		for (var i = 0; i < used.length; i++) {
+			if (used[i]) {
+				consumer.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import org.springframework.lang.Nullable;
+
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.withDefault;
+
+/**
+ * Memoization with primitive keys and values, backed by a {@link LongLongHashMap}: no boxing and no key objects per
+ * lookup. Composite keys of small ints are packed into one {@code long}, see {@link #pack(int, int)}.
+ * <p>
+ * Like {@link Memoization}, loaders may call the memoized function recursively. Not thread-safe.
+ * <p>
+ * Of the {@link MemoizationOptions}, only the expected size and the stats are supported.
+ */
+public final class LongMemoization {
+
+	// marks a possibly absent value, confirmed by containsKey
+	private static final long ABSENT = Long.MIN_VALUE;
+
+	private LongMemoization() {
+	}
+
+	/**
+	 * Loader of a recursive function, given the memoized function for its recursive calls.
+	 */
+	@FunctionalInterface
+	public interface RecursiveLoader {
+
+		long load(LongUnaryOperator self, long key);
+
+	}
+
+	@FunctionalInterface
+	public interface IntIntToLongFunction {
+
+		long applyAsLong(int a, int b);
+
+	}
+
+	public static LongUnaryOperator memoize(final LongUnaryOperator loader) {
+		return memoizeRecursive((_, key) -> loader.applyAsLong(key));
+	}
+
+	public static LongUnaryOperator memoizeRecursive(final RecursiveLoader loader) {
+		return memoizeRecursive(loader, null, withDefault());
+	}
+
+	public static LongUnaryOperator memoizeRecursive(final RecursiveLoader loader,
+													 final Consumer<MemoizationOptions.MemoizationOptionsBuilder> configurer) {
+		return memoizeRecursive(loader, null, configurer);
+	}
+
+	/**
+	 * Like {@link #memoizeRecursive(RecursiveLoader)}, starting with the entries of the store (if any) and appending
+	 * each newly loaded one to it.
+	 */
+	public static LongUnaryOperator memoizeRecursive(final RecursiveLoader loader,
+													 @Nullable final MappedLongStore store) {
+		return memoizeRecursive(loader, store, withDefault());
+	}
+
+	public static LongUnaryOperator memoizeRecursive(final RecursiveLoader loader,
+													 @Nullable final MappedLongStore store,
+													 final Consumer<MemoizationOptions.MemoizationOptionsBuilder> configurer) {
+		final var optionsBuilder = MemoizationOptions.builder();
+		configurer.accept(optionsBuilder);
+		final var options = optionsBuilder.build();
+		if (options.isThreadSafe() || options.getMaxSize() < Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("neither thread-safe nor bounded memoization is supported");
+		}
+		final var expectedSize = options.getExpectedSize() < Integer.MAX_VALUE ? options.getExpectedSize() : 16;
+		final var cache = new LongLongHashMap(Math.max(expectedSize, store != null ? store.size() : 0));
+		if (store != null) {
+			store.forEach(cache::put);
+		}
+		if (!options.isRecordStats()) {
+			return new Memoized(loader, cache, store, null);
+		}
+		final var counters = new Counters(options.getName(), cache.size());
+		Memoization.record(counters);
+		return new Memoized(loader, cache, store, counters);
+	}
+
+	/**
+	 * Plain fields, as the function is not thread-safe anyway. Kept apart from the cache, so that
+	 * {@link Memoization#stats()} does not keep the cache alive.
+	 */
+	private static final class Counters implements Supplier<MemoizationStats> {
+
+		@Nullable
+		private final String name;
+		private long hits;
+		private long misses;
+		private long loads;
+		private long totalLoadNanos;
+		private long maxLoadNanos;
+		private int size;
+
+		private Counters(@Nullable final String name, final int size) {
+			this.name = name;
+			this.size = size;
+		}
+
+		@Override
+		public MemoizationStats get() {
+			return new MemoizationStats(name, hits, misses, loads, totalLoadNanos, maxLoadNanos, size, 0);
+		}
+
+	}
+
+	private static final class Memoized implements LongUnaryOperator {
+
+		private final RecursiveLoader loader;
+		private final LongLongHashMap cache;
+		@Nullable
+		private final MappedLongStore store;
+		@Nullable
+		private final Counters counters;
+
+		private Memoized(final RecursiveLoader loader,
+						 final LongLongHashMap cache,
+						 @Nullable final MappedLongStore store,
+						 @Nullable final Counters counters) {
+			this.loader = loader;
+			this.cache = cache;
+			this.store = store;
+			this.counters = counters;
+		}
+
+		@Override
+		public long applyAsLong(final long key) {
+			final var cached = cache.get(key, ABSENT);
+			if (cached != ABSENT || cache.containsKey(key)) {
+				if (counters != null) {
+					counters.hits++;
+				}
+				return cached;
+			}
+			// not computeIfAbsent-like: the loader may add other keys meanwhile
+			final var value = counters != null ? timedLoad(key, counters) : loader.load(this, key);
+			cache.put(key, value);
+			if (counters != null) {
+				counters.size = cache.size();
+			}
+			if (store != null) {
+				store.append(key, value);
+			}
+			return value;
+		}
+
+		private long timedLoad(final long key, final Counters counters) {
+			counters.misses++;
+			final var started = System.nanoTime();
+			final var value = loader.load(this, key);
+			final var used = System.nanoTime() - started;
+			counters.loads++;
+			counters.totalLoadNanos += used;
+			counters.maxLoadNanos = Math.max(counters.maxLoadNanos, used);
+			return value;
+		}
+
+	}
+
+	/**
+	 * Memoize a function of two ints, keyed by {@link #pack(int, int)}.
+	 */
+	public static IntIntToLongFunction memoize(final IntIntToLongFunction loader) {
+		final var memoized = memoize(key -> loader.applyAsLong(high(key), low(key)));
+		return (a, b) -> memoized.applyAsLong(pack(a, b));
+	}
+
+	/**
+	 * Both ints in one {@code long}, e.g. as a composite key.
+	 */
+	public static long pack(final int high, final int low) {
+		return ((long) high << 32) | (low & 0xFFFFFFFFL);
+	}
+
+	public static int high(final long packed) {
+		return (int) (packed >>> 32);
+	}
+
+	public static int low(final long packed) {
+		return (int) packed;
+	}
+
+}
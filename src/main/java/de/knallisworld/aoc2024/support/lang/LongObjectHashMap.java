@@ -0,0 +1,190 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Hash map with primitive {@code long} keys and non-null values (open addressing, linear probing).
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <V> value type
+ */
+public class LongObjectHashMap<V> {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private Object[] values;
+	private int size;
+	private int mask;
+
+	public LongObjectHashMap() {
+		this(MIN_CAPACITY);
+	}
+
+	public LongObjectHashMap(final int expectedSize) {
+		allocate(capacityFor(expectedSize));
+	}
+
+	private static int capacityFor(final int expectedSize) {
+		// load factor 0.5
+		final var capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize) * 2 - 1) << 1;
+		if (capacity <= 0) {
+			throw new IllegalStateException("capacity exceeded");
+		}
+		return capacity;
+	}
+
+	private void allocate(final int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+	}
+
+	static int hash(final long key) {
+		var h = key * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		h ^= h >>> 16;
+		return (int) h;
+	}
+
+	private int slotOf(final long key) {
+		var slot = hash(key) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -slot - 1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean containsKey(final long key) {
+		return slotOf(key) >= 0;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V get(final long key) {
+		final var slot = slotOf(key);
+		return slot >= 0 ? (V) values[slot] : null;
+	}
+
+	/**
+	 * @return the previous value or null
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V put(final long key, final V value) {
+		Objects.requireNonNull(value);
+		final var slot = slotOf(key);
+		if (slot >= 0) {
+			final var previous = (V) values[slot];
+			values[slot] = value;
+			return previous;
+		}
+		final var free = -slot - 1;
+		keys[free] = key;
+		values[free] = value;
+		if (++size * 2 > values.length) {
+			rehash(values.length * 2);
+		}
+		return null;
+	}
+
+	/**
+	 * @return the removed value or null
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V remove(final long key) {
+		var slot = slotOf(key);
+		if (slot < 0) {
+			return null;
+		}
+		final var previous = (V) values[slot];
+		// backward shift deletion keeps probe sequences intact without tombstones
+		var next = (slot + 1) & mask;
+		while (values[next] != null) {
+			final var home = hash(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		values[slot] = null;
+		size--;
+		return previous;
+	}
+
+	public void clear() {
+		allocate(MIN_CAPACITY);
+		size = 0;
+	}
+
+	private void rehash(final int capacity) {
+		final var oldKeys = keys;
+		final var oldValues = values;
+		allocate(capacity);
+		for (var i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				final var slot = -slotOf(oldKeys[i]) - 1;
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+
+		void accept(long key, V value);
+
+	}
+
+	@SuppressWarnings("unchecked")
+	public void forEach(final EntryConsumer<V> consumer) {
+		final var k = keys;
+		final var v = values;
+		for (var i = 0; i < v.length; i++) {
+			if (v[i] != null) {
+				consumer.accept(k[i], (V) v[i]);
+			}
+		}
+	}
+
+	/**
+	 * Live view of the values; the map must not be modified while the stream is consumed.
+	 */
+	@SuppressWarnings("unchecked")
+	public Stream<V> values() {
+		final var v = values;
+		return IntStream.range(0, v.length)
+						.filter(i -> v[i] != null)
+						.mapToObj(i -> (V) v[i]);
+	}
+
+	public LongObjectHashMap<V> copy() {
+		final var result = new LongObjectHashMap<V>();
+		result.keys = keys.clone();
+		result.values = values.clone();
+		result.size = size;
+		result.mask = mask;
+		return result;
+	}
+
+}
@@ -0,0 +1,199 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import lombok.SneakyThrows;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.lang.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only {@code long -> long} entries in a memory-mapped file, so that memo tables (see
+ * {@link LongMemoization#memoizeRecursive(LongMemoization.RecursiveLoader, MappedLongStore)}) survive the run.
+ * <p>
+ * One file per function and puzzle input. Layout, little endian:
+ * <ul>
+ *     <li>header (32 bytes): magic, version, entry size, hash of the function id, hash of the input</li>
+ *     <li>entries (24 bytes each): key, value, checksum of both and the header</li>
+ * </ul>
+ * Entries are written to the mapping directly; the first entry with a wrong checksum (e.g. torn by a crash) ends the
+ * file, so a crash loses at most the last entries. A file with another header is started over.
+ * <p>
+ * Opt-in: see {@link #configured(String, List)} and {@value #PROPERTY}.
+ * <p>
+ * Not thread-safe.
+ */
+@Log4j2
+public final class MappedLongStore {
+
+	/**
+	 * Directory of the stores; persistence is off unless set.
+	 */
+	public static final String PROPERTY = "aoc.memo.dir";
+
+	private static final long MAGIC = 0x314F4D454D434F41L; // "AOCMEMO1"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 32;
+	private static final int ENTRY_SIZE = 24;
+	private static final int MIN_CAPACITY = 1024;
+
+	private final Path file;
+	private final long functionHash;
+	private final long inputHash;
+	// mixed into each checksum
+	private final long salt;
+	private MappedByteBuffer buffer;
+	private int size;
+
+	private MappedLongStore(final Path file, final long functionHash, final long inputHash) {
+		this.file = file;
+		this.functionHash = functionHash;
+		this.inputHash = inputHash;
+		this.salt = Zobrist.mix(functionHash ^ Zobrist.mix(inputHash ^ VERSION));
+		this.buffer = map(Math.max(fileEntries(file), MIN_CAPACITY));
+		if (buffer.getLong(0) == MAGIC
+			&& buffer.getInt(8) == VERSION
+			&& buffer.getInt(12) == ENTRY_SIZE
+			&& buffer.getLong(16) == functionHash
+			&& buffer.getLong(24) == inputHash) {
+			while (size < capacity() && isValid(size)) {
+				size++;
+			}
+			// drop whatever follows a torn entry, so that it does not reappear behind the next append
+			for (var entry = size; entry < capacity(); entry++) {
+				final var offset = HEADER_SIZE + entry * ENTRY_SIZE + 16;
+				if (buffer.getLong(offset) != 0) {
+					buffer.putLong(offset, 0);
+				}
+			}
+		} else {
+			writeHeader();
+		}
+	}
+
+	/**
+	 * Opens (or creates) the store of the function and input in the directory.
+	 */
+	@SneakyThrows
+	public static MappedLongStore open(final Path directory, final String functionId, final List<String> input) {
+		Files.createDirectories(directory);
+		final var functionHash = hash(functionId);
+		final var inputHash = hash(String.join("\n", input));
+		final var name = "%s-%016x.memo".formatted(functionId.replaceAll("[^A-Za-z0-9_.-]", "_"), inputHash);
+		return new MappedLongStore(directory.resolve(name), functionHash, inputHash);
+	}
+
+	/**
+	 * The store in the directory of {@value #PROPERTY}, or {@code null} if not set.
+	 */
+	@Nullable
+	public static MappedLongStore configured(final String functionId, final List<String> input) {
+		final var directory = System.getProperty(PROPERTY);
+		if (directory == null || directory.isBlank()) {
+			return null;
+		}
+		final var result = open(Path.of(directory), functionId, input);
+		log.debug("Memo store {} starts with {} entries", result.file, result.size);
+		return result;
+	}
+
+	@SneakyThrows
+	private static long hash(final String value) {
+		final var digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+		return ByteBuffer.wrap(digest).getLong();
+	}
+
+	@SneakyThrows
+	private static long fileEntries(final Path file) {
+		if (!Files.exists(file)) {
+			return 0;
+		}
+		return (Files.size(file) - HEADER_SIZE) / ENTRY_SIZE;
+	}
+
+	@SneakyThrows
+	private MappedByteBuffer map(final long entries) {
+		final var bytes = HEADER_SIZE + entries * ENTRY_SIZE;
+		if (bytes > Integer.MAX_VALUE) {
+			throw new IllegalStateException("capacity exceeded");
+		}
+		// the mapping stays valid after closing the channel
+		try (final var channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+			final var result = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+			result.order(ByteOrder.LITTLE_ENDIAN);
+			return result;
+		}
+	}
+
+	private void writeHeader() {
+		buffer.putLong(0, MAGIC);
+		buffer.putInt(8, VERSION);
+		buffer.putInt(12, ENTRY_SIZE);
+		buffer.putLong(16, functionHash);
+		buffer.putLong(24, inputHash);
+	}
+
+	private int capacity() {
+		return (buffer.capacity() - HEADER_SIZE) / ENTRY_SIZE;
+	}
+
+	/**
+	 * Covers the header as well, so that stale entries of a file started over never pass.
+	 */
+	private long checksum(final long key, final long value) {
+		final var result = Zobrist.mix(key ^ Long.rotateLeft(value, 32) ^ salt);
+		return result != 0 ? result : 1;
+	}
+
+	private boolean isValid(final int entry) {
+		final var offset = HEADER_SIZE + entry * ENTRY_SIZE;
+		return buffer.getLong(offset + 16) == checksum(buffer.getLong(offset), buffer.getLong(offset + 8));
+	}
+
+	public Path file() {
+		return file;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void forEach(final LongLongHashMap.EntryConsumer consumer) {
+		for (var entry = 0; entry < size; entry++) {
+			final var offset = HEADER_SIZE + entry * ENTRY_SIZE;
+			consumer.accept(buffer.getLong(offset), buffer.getLong(offset + 8));
+		}
+	}
+
+	public void append(final long key, final long value) {
+		if (size == capacity()) {
+			buffer.force();
+			buffer = map((long) capacity() * 2);
+		}
+		final var offset = HEADER_SIZE + size * ENTRY_SIZE;
+		buffer.putLong(offset, key);
+		buffer.putLong(offset + 8, value);
+		// the checksum commits the entry
+		buffer.putLong(offset + 16, checksum(key, value));
+		size++;
+	}
+
+	/**
+	 * Writes the mapping through to the file; without, the OS does so eventually (also if the JVM crashes).
+	 */
+	public void force() {
+		buffer.force();
+	}
+
+}
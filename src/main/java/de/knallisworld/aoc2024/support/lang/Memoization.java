@@ -1,15 +1,25 @@
 package de.knallisworld.aoc2024.support.lang;
 
-import org.springframework.lang.Nullable;
-
-import java.util.*;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.withDefault;
 
 public class Memoization {
 
+	// stats of functions recording them, until drained; never the functions themselves, so no cache is kept alive
+	private static final List<Supplier<MemoizationStats>> RECORDING = new CopyOnWriteArrayList<>();
+
 	public static <I, O> Function<I, O> memoize(final Function<I, O> loader) {
 		return memoize(loader, withDefault());
 	}
@@ -33,6 +43,84 @@ public class Memoization {
 		return input -> memoize.apply(input).orElse(null);
 	}
 
+	/**
+	 * Memoize a recursive function: the loader gets the memoized function itself for its recursive calls.
+	 * <p>
+	 * Plain recursion is safe, also when thread-safe and called from parallel streams. A loader must not fork parallel
+	 * work calling the function itself though: a worker joining it may steal such a task onto the thread loading the
+	 * very input, which then fails with an {@link IllegalStateException} as it cannot wait for itself.
+	 *
+	 * @param loader     actual loading function, given the memoized function and the input
+	 * @param configurer configurer
+	 * @param <I>        input type
+	 * @param <O>        output type
+	 * @return curried function
+	 */
+	public static <I, O> Function<I, O> memoizeRecursive(final BiFunction<Function<I, O>, I, O> loader,
+														 final Consumer<MemoizationOptions.MemoizationOptionsBuilder> configurer) {
+		final var self = new AtomicReference<Function<I, O>>();
+		final var result = memoize((I input) -> loader.apply(self.get(), input), configurer);
+		self.set(result);
+		return result;
+	}
+
+	/**
+	 * Memoize the future output for each input. The memorization is based on the input's equality.
+	 * <p>
+	 * Single-flight: concurrent callers of the same input share one load. A failed load is forgotten, so the next call
+	 * loads again. Each caller gets its own dependent future, cancelling it does not affect the others. A loader must
+	 * not wait for the future of its own input.
+	 *
+	 * @param loader actual loading function
+	 * @param <I>    input type
+	 * @param <O>    output type
+	 * @return curried function
+	 */
+	public static <I, O> Function<I, CompletableFuture<O>> memoizeAsync(final Function<I, CompletableFuture<O>> loader) {
+		final var cache = new ConcurrentHashMap<I, CompletableFuture<O>>();
+		return input -> {
+			final var cached = cache.get(input);
+			if (cached != null) {
+				return cached.copy();
+			}
+			final var promise = new CompletableFuture<O>();
+			final var raced = cache.putIfAbsent(input, promise);
+			if (raced != null) {
+				return raced.copy();
+			}
+			try {
+				loader.apply(input)
+					  .whenComplete((value, error) -> {
+						  if (error != null) {
+							  cache.remove(input, promise);
+							  promise.completeExceptionally(error);
+						  } else {
+							  promise.complete(value);
+						  }
+					  });
+			} catch (final RuntimeException | Error e) {
+				cache.remove(input, promise);
+				promise.completeExceptionally(e);
+			}
+			return promise.copy();
+		};
+	}
+
+	/**
+	 * Like {@link #memoizeAsync(Function)}, loading synchronously on the executor.
+	 */
+	public static <I, O> Function<I, CompletableFuture<O>> memoizeAsync(final Function<I, O> loader,
+																		final Executor executor) {
+		return memoizeAsync(input -> CompletableFuture.supplyAsync(() -> loader.apply(input), executor));
+	}
+
+	/**
+	 * Like {@link #memoizeAsync(Function)}, loading synchronously on a virtual thread each.
+	 */
+	public static <I, O> Function<I, CompletableFuture<O>> memoizeVirtual(final Function<I, O> loader) {
+		return memoizeAsync(loader, VirtualThreads.EXECUTOR);
+	}
+
 	/**
 	 * Memoize the output for each input. The memorization is based on the input's equality.
 	 *
@@ -48,35 +136,48 @@ public class Memoization {
 		final var optionsBuilder = MemoizationOptions.builder();
 		configurer.accept(optionsBuilder);
 		final var options = optionsBuilder.build();
-
-		record Item<T>(@Nullable T value) {
+		final var result = new Memoizer<>(loader, options);
+		if (options.isRecordStats()) {
+			record(result.recorder());
 		}
+		return result;
+	}
 
-		final Map<I, Item<O>> cache;
-		{
-			Map<I, Item<O>> temp;
-			if (options.getExpectedSize() <= 3) {
-				temp = new LinkedHashMap<>();
-			} else {
-				temp = new HashMap<>();
-			}
-			if (options.isThreadSafe()) {
-				temp = Collections.synchronizedMap(temp);
-			}
-			cache = temp;
-		}
+	/**
+	 * Registers the stats of a function recording them, so that {@link #stats()} includes them. The supplier must not
+	 * reference the function (and so its cache).
+	 */
+	static void record(final Supplier<MemoizationStats> stats) {
+		RECORDING.add(stats);
+	}
+
+	/**
+	 * Stats of all functions recording them (see {@link MemoizationOptions#recordStats(String)}) and not drained yet.
+	 */
+	public static List<MemoizationStats> stats() {
+		return RECORDING.stream()
+						.map(Supplier::get)
+						.toList();
+	}
+
+	/**
+	 * Like {@link #stats()}, but also forgets the functions, so that they can be collected.
+	 */
+	public static List<MemoizationStats> drainStats() {
+		final var drained = List.copyOf(RECORDING);
+		RECORDING.removeAll(drained);
+		return drained.stream()
+					  .map(Supplier::get)
+					  .toList();
+	}
+
+	private static final class VirtualThreads {
+
+		// unbounded and never shut down; idle virtual threads cost nothing
+		static final Executor EXECUTOR = Executors.newThreadPerTaskExecutor(
+			Thread.ofVirtual().name("memoization-", 0).factory()
+		);
 
-		return input -> {
-			if (cache.containsKey(input)) {
-				return Optional.ofNullable(cache.get(input).value());
-			}
-			final var output = loader.apply(input).orElse(null);
-			if (output != null || options.isIncludeEmptyValues()) {
-				cache.put(input, new Item<>(output));
-			}
-			return Optional.ofNullable(cache.get(input))
-						   .map(Item::value);
-		};
 	}
 
 }
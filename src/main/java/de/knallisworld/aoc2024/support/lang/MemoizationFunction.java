@@ -16,4 +16,9 @@ public interface MemoizationFunction<I, O> extends Function<I, Optional<O>> {
 		return apply(input).orElseThrow();
 	}
 
+	/**
+	 * Snapshot of the stats; only the size unless recorded, see {@link MemoizationOptions#isRecordStats()}.
+	 */
+	MemoizationStats stats();
+
 }
@@ -2,6 +2,7 @@ package de.knallisworld.aoc2024.support.lang;
 
 import lombok.Builder;
 import lombok.Getter;
+import org.springframework.lang.Nullable;
 
 import java.util.function.Consumer;
 
@@ -9,6 +10,11 @@ import java.util.function.Consumer;
 @Builder
 public class MemoizationOptions {
 
+	/**
+	 * Turns on {@link #recordStatsIfRequested(String)}; off by default.
+	 */
+	public static final String STATS_PROPERTY = "aoc.memo.stats";
+
 	/**
 	 * Expected size of cached items. May influences internals.
 	 */
@@ -22,11 +28,37 @@ public class MemoizationOptions {
 	private boolean includeEmptyValues = false;
 
 	/**
-	 * Indicates whether the resolver must be thread-safe.
+	 * Indicates whether the resolver must be thread-safe. Concurrent loads of the same key are single-flight then.
+	 * Backed by a {@link java.util.concurrent.ConcurrentHashMap}, a {@code null} input is memoized under a sentinel
+	 * key (as in the other modes).
 	 */
 	@Builder.Default
 	private boolean threadSafe = false;
 
+	/**
+	 * Maximum number of cached items; unbounded by default.
+	 */
+	@Builder.Default
+	private int maxSize = Integer.MAX_VALUE;
+
+	/**
+	 * Which item to drop if {@link #maxSize} is reached.
+	 */
+	@Builder.Default
+	private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+	/**
+	 * Indicates whether hits, misses and load times should be recorded, see {@link Memoization#stats()}.
+	 */
+	@Builder.Default
+	private boolean recordStats = false;
+
+	/**
+	 * Name of the function in its stats.
+	 */
+	@Nullable
+	private String name;
+
 	/**
 	 * default options
 	 */
@@ -50,10 +82,33 @@ public class MemoizationOptions {
 	}
 
 	/**
-	 * Indicates whether the resolver have to thread safe.
+	 * Indicates whether the resolver have to thread safe, see {@link #threadSafe}; {@code null} inputs are still
+	 * supported.
 	 */
 	public static Consumer<MemoizationOptionsBuilder> threadSafe() {
 		return o -> o.threadSafe(true);
 	}
 
+	/**
+	 * Records stats under the given name, see {@link Memoization#stats()}.
+	 */
+	public static Consumer<MemoizationOptionsBuilder> recordStats(final String name) {
+		return o -> o.recordStats(true).name(name);
+	}
+
+	/**
+	 * Like {@link #recordStats(String)}, but only if the system property {@value #STATS_PROPERTY} is {@code true}, so
+	 * that the puzzles pay for the timing only on request.
+	 */
+	public static Consumer<MemoizationOptionsBuilder> recordStatsIfRequested(final String name) {
+		return Boolean.getBoolean(STATS_PROPERTY) ? recordStats(name) : o -> o.name(name);
+	}
+
+	/**
+	 * Caches at most {@code maxSize} items, dropping by the given policy.
+	 */
+	public static Consumer<MemoizationOptionsBuilder> bounded(final int maxSize, final EvictionPolicy policy) {
+		return o -> o.maxSize(maxSize).evictionPolicy(policy);
+	}
+
 }
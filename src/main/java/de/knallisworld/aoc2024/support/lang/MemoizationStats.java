@@ -0,0 +1,52 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Snapshot of the statistics of a memoized function, see {@link MemoizationOptions#isRecordStats()}.
+ *
+ * @param name           name of the function, if given
+ * @param hits           calls answered from the cache (including waiting for a concurrent load)
+ * @param misses         calls which had to load
+ * @param loads          successful loads
+ * @param totalLoadNanos time spent loading; a recursive load includes its nested loads
+ * @param maxLoadNanos   longest single load
+ * @param size           cached values, as of the last change if recorded
+ * @param evictions      values dropped (or rejected) by the eviction policy
+ */
+public record MemoizationStats(@Nullable String name,
+							   long hits,
+							   long misses,
+							   long loads,
+							   long totalLoadNanos,
+							   long maxLoadNanos,
+							   long size,
+							   long evictions) {
+
+	public long requests() {
+		return hits + misses;
+	}
+
+	public double hitRate() {
+		return requests() == 0 ? 0 : (double) hits / requests();
+	}
+
+	public double averageLoadNanos() {
+		return loads == 0 ? 0 : (double) totalLoadNanos / loads;
+	}
+
+	public String format() {
+		return "'%s': %d requests, hit rate %.1f%%, %d loads (total %.3fs, avg %.1fµs, max %.3fms), size %d, %d evictions".formatted(
+			name != null ? name : "unnamed",
+			requests(),
+			hitRate() * 100,
+			loads,
+			totalLoadNanos / 1e9,
+			averageLoadNanos() / 1e3,
+			maxLoadNanos / 1e6,
+			size,
+			evictions
+		);
+	}
+
+}
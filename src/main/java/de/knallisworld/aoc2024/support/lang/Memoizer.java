@@ -0,0 +1,278 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import org.springframework.lang.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Engine behind {@link Memoization}.
+ * <p>
+ * Loaders always run outside of any map operation, so they may call the memoized function recursively (unlike
+ * {@link Map#computeIfAbsent}, which fails with a {@link java.util.ConcurrentModificationException}). If thread-safe,
+ * a load is single-flight: the first caller of a key installs a placeholder and loads, concurrent callers of the same
+ * key wait for its result instead of loading again.
+ * <p>
+ * If bounded, the {@link EvictionTracker} is guarded by its own lock, taken on hits and stores.
+ */
+class Memoizer<I, O> implements MemoizationFunction<I, O> {
+
+	private record Item<T>(@Nullable T value) {
+
+		Optional<T> optional() {
+			return Optional.ofNullable(value);
+		}
+
+	}
+
+	/**
+	 * Placeholder of a key while its owner loads it.
+	 * <p>
+	 * The owner asking for the key again cannot wait for itself: either the loader recursed on its own input, or the
+	 * thread runs a task stolen while joining inside the load (e.g. a parallel stream in the loader).
+	 */
+	private static final class Loading<T> {
+
+		private final Thread owner = Thread.currentThread();
+		private final CompletableFuture<Optional<T>> result = new CompletableFuture<>();
+
+		Optional<T> await(@Nullable final Object input) {
+			if (owner == Thread.currentThread()) {
+				throw new IllegalStateException("key requested again by the thread loading it: " + input);
+			}
+			try {
+				return result.join();
+			} catch (final CompletionException e) {
+				if (e.getCause() instanceof RuntimeException re) {
+					throw re;
+				}
+				if (e.getCause() instanceof Error error) {
+					throw error;
+				}
+				throw e;
+			}
+		}
+
+	}
+
+	/**
+	 * Kept apart from the cache, so that {@link Memoization#stats()} does not keep the cache alive.
+	 */
+	private static final class Counters implements Supplier<MemoizationStats> {
+
+		@Nullable
+		private final String name;
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+		private final LongAdder loads = new LongAdder();
+		private final LongAdder totalLoadNanos = new LongAdder();
+		private final LongAccumulator maxLoadNanos = new LongAccumulator(Math::max, 0);
+		private final LongAdder evictions = new LongAdder();
+		// as of the last change
+		private volatile long size;
+
+		private Counters(@Nullable final String name) {
+			this.name = name;
+		}
+
+		@Override
+		public MemoizationStats get() {
+			return new MemoizationStats(
+				name,
+				hits.sum(),
+				misses.sum(),
+				loads.sum(),
+				totalLoadNanos.sum(),
+				maxLoadNanos.get(),
+				size,
+				evictions.sum()
+			);
+		}
+
+	}
+
+	// stands in for a null input, as ConcurrentHashMap does not take null keys
+	private static final Object NULL_KEY = new Object();
+
+	private final Function<I, Optional<O>> loader;
+	@Nullable
+	private final String name;
+	private final boolean includeEmptyValues;
+	private final boolean threadSafe;
+	// keys are the inputs (or NULL_KEY), values are either an Item or a Loading
+	private final Map<Object, Object> entries;
+	@Nullable
+	private final EvictionTracker<Object> eviction;
+	@Nullable
+	private final Counters counters;
+
+	Memoizer(final Function<I, Optional<O>> loader, final MemoizationOptions options) {
+		this.loader = loader;
+		this.name = options.getName();
+		this.counters = options.isRecordStats() ? new Counters(name) : null;
+		this.includeEmptyValues = options.isIncludeEmptyValues();
+		this.threadSafe = options.isThreadSafe();
+		if (threadSafe) {
+			entries = options.getExpectedSize() < Integer.MAX_VALUE
+				? new ConcurrentHashMap<>(options.getExpectedSize())
+				: new ConcurrentHashMap<>();
+		} else if (options.getExpectedSize() <= 3) {
+			entries = new LinkedHashMap<>();
+		} else {
+			entries = new HashMap<>();
+		}
+		eviction = options.getMaxSize() < Integer.MAX_VALUE
+			? EvictionTracker.of(options.getEvictionPolicy(), options.getMaxSize())
+			: null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Optional<O> apply(@Nullable final I input) {
+		final Object key = input != null ? input : NULL_KEY;
+		while (true) {
+			final var current = entries.get(key);
+			if (current instanceof Item<?> item) {
+				if (eviction != null) {
+					synchronized (eviction) {
+						eviction.access(key);
+					}
+				}
+				if (counters != null) {
+					counters.hits.increment();
+				}
+				return ((Item<O>) item).optional();
+			}
+			if (current instanceof Loading<?> loading) {
+				if (counters != null) {
+					counters.hits.increment();
+				}
+				return ((Loading<O>) loading).await(input);
+			}
+			if (!threadSafe) {
+				final var output = timedLoad(input);
+				if (output.isPresent() || includeEmptyValues) {
+					store(key, null, new Item<>(output.orElse(null)));
+				}
+				return output;
+			}
+			final var loading = new Loading<O>();
+			if (entries.putIfAbsent(key, loading) == null) {
+				return load(input, key, loading);
+			}
+			// lost the race, read again
+		}
+	}
+
+	private Optional<O> load(@Nullable final I input, final Object key, final Loading<O> loading) {
+		final Optional<O> output;
+		try {
+			output = timedLoad(input);
+		} catch (final RuntimeException | Error e) {
+			// do not cache failures, waiting callers get the same exception
+			entries.remove(key, loading);
+			recordSize();
+			loading.result.completeExceptionally(e);
+			throw e;
+		}
+		if (output.isPresent() || includeEmptyValues) {
+			store(key, loading, new Item<>(output.orElse(null)));
+		} else {
+			entries.remove(key, loading);
+			recordSize();
+		}
+		loading.result.complete(output);
+		return output;
+	}
+
+	/**
+	 * Stores the item (in place of the placeholder, if any), unless the eviction policy rejects it.
+	 */
+	private void store(final Object key, @Nullable final Loading<O> loading, final Item<O> item) {
+		if (eviction == null) {
+			put(key, loading, item);
+			return;
+		}
+		synchronized (eviction) {
+			final var evicted = eviction.admit(key);
+			if (evicted != null && counters != null) {
+				counters.evictions.increment();
+			}
+			if (evicted != null && evicted.equals(key)) {
+				if (loading != null) {
+					entries.remove(key, loading);
+					recordSize();
+				}
+				return;
+			}
+			put(key, loading, item);
+			if (evicted != null) {
+				entries.remove(evicted);
+				recordSize();
+			}
+		}
+	}
+
+	private Optional<O> timedLoad(@Nullable final I input) {
+		if (counters == null) {
+			return loader.apply(input);
+		}
+		counters.misses.increment();
+		final var started = System.nanoTime();
+		final var output = loader.apply(input);
+		final var used = System.nanoTime() - started;
+		counters.loads.increment();
+		counters.totalLoadNanos.add(used);
+		counters.maxLoadNanos.accumulate(used);
+		return output;
+	}
+
+	private void put(final Object key, @Nullable final Loading<O> loading, final Item<O> item) {
+		if (loading == null) {
+			entries.put(key, item);
+		} else {
+			entries.replace(key, loading, item);
+		}
+		recordSize();
+	}
+
+	private void recordSize() {
+		if (counters != null) {
+			counters.size = entries.size();
+		}
+	}
+
+	/**
+	 * Number of cached values (including placeholders of running loads).
+	 */
+	int size() {
+		return entries.size();
+	}
+
+	@Override
+	public MemoizationStats stats() {
+		if (counters == null) {
+			return new MemoizationStats(name, 0, 0, 0, 0, 0, size(), 0);
+		}
+		return counters.get();
+	}
+
+	/**
+	 * The stats, without a reference to this function; only if recording them.
+	 */
+	Supplier<MemoizationStats> recorder() {
+		return requireNonNull(counters, "stats are not recorded");
+	}
+
+}
@@ -0,0 +1,89 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Incremental 64-bit state hash (Zobrist style): the hash of a state is the xor of one key per (slot, value), so
+ * changing a single cell or moving a single agent updates it in O(1).
+ * <p>
+ * Keys are derived by mixing instead of a random table, so they are stable across runs and need no setup. Equal
+ * states have equal hashes; different states collide with a probability of about {@code 2^-64}.
+ * <p>
+ * Not thread-safe.
+ */
+public final class Zobrist {
+
+	private static final long SEED = 0x2545F4914F6CDD1DL;
+
+	private long hash;
+
+	/**
+	 * Key of the value in the slot (e.g. a cell index).
+	 */
+	public static long key(final long slot, final long value) {
+		return mix(mix(slot + SEED) ^ value);
+	}
+
+	/**
+	 * Key of the cell's value; {@code 0} for an unset cell, so it does not contribute.
+	 */
+	public static long cell(final int index, @Nullable final Object value) {
+		if (value == null) {
+			return 0L;
+		}
+		return key(index, valueOf(value));
+	}
+
+	/**
+	 * Key of an agent's state (e.g. packed position and direction); agents use slots disjoint from cells.
+	 */
+	public static long agent(final int agent, final long state) {
+		return key(-1L - agent, state);
+	}
+
+	/**
+	 * Stable code of a value: ordinals of enums, numbers and chars as they are, the hash code otherwise.
+	 */
+	static long valueOf(final Object value) {
+		return switch (value) {
+			case Enum<?> e -> e.ordinal();
+			case Number n -> n.longValue();
+			case Character c -> c;
+			case Boolean b -> b ? 1 : 0;
+			default -> value.hashCode();
+		};
+	}
+
+	/**
+	 * Finalizer of SplitMix64.
+	 */
+	public static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	public long value() {
+		return hash;
+	}
+
+	/**
+	 * Adds the key if absent, removes it otherwise.
+	 */
+	public void toggle(final long key) {
+		hash ^= key;
+	}
+
+	public void setCell(final int index, @Nullable final Object oldValue, @Nullable final Object newValue) {
+		hash ^= cell(index, oldValue) ^ cell(index, newValue);
+	}
+
+	public void moveAgent(final int agent, final long oldState, final long newState) {
+		hash ^= agent(agent, oldState) ^ agent(agent, newState);
+	}
+
+	public void reset() {
+		hash = 0L;
+	}
+
+}
@@ -1,10 +1,17 @@
 package de.knallisworld.aoc2024.support.puzzle;
 
+import de.knallisworld.aoc2024.support.geo.grid2.ByteGrid;
 import lombok.SneakyThrows;
+import org.springframework.lang.Nullable;
 
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -87,6 +94,80 @@ public class InputReader {
 		}
 	}
 
+	/**
+	 * Reads the input as a grid of raw bytes (one byte per symbol).
+	 *
+	 * @see #readInputByteGrid(int, String, int[])
+	 */
+	public static ByteGrid readInputByteGrid(final int day,
+											 final String name) {
+		return readInputByteGrid(day, name, null);
+	}
+
+	/**
+	 * Reads the input as a grid of bytes, without any intermediate lines or strings: a file resource is memory-mapped
+	 * and its rows are copied straight into the grid's backing array; width and height are derived from the first
+	 * line break. An optional decode table (see {@link ByteGrid#decodeTable(String)}) maps each symbol to its code in
+	 * the same pass.
+	 */
+	@SneakyThrows
+	public static ByteGrid readInputByteGrid(final int day,
+											 final String name,
+											 @Nullable final int[] decodeTable) {
+		final URL url = requireNonNull(InputReader.class.getClassLoader().getResource(buildResourcePath(day, name)));
+		if ("file".equals(url.getProtocol())) {
+			try (final var channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+				return toByteGrid(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), decodeTable);
+			}
+		}
+		try (final var stream = url.openStream()) {
+			return toByteGrid(ByteBuffer.wrap(stream.readAllBytes()), decodeTable);
+		}
+	}
+
+	static ByteGrid toByteGrid(final ByteBuffer buffer, @Nullable final int[] decodeTable) {
+		final var length = buffer.limit();
+		var width = 0;
+		while (width < length && buffer.get(width) != '\n' && buffer.get(width) != '\r') {
+			width++;
+		}
+		final var separator = width < length && buffer.get(width) == '\r' ? 2 : 1;
+		final var stride = width + separator;
+		final var height = (length + separator) / stride;
+		if (width == 0 || height == 0) {
+			throw new IllegalStateException("input is not a grid");
+		}
+
+		final var data = new byte[width * height];
+		for (var y = 0; y < height; y++) {
+			final var rowStart = y * stride;
+			if (rowStart + width > length
+				|| rowStart + width < length && buffer.get(rowStart + width) != '\n' && buffer.get(rowStart + width) != '\r') {
+				throw new IllegalStateException("row %d does not have the width %d".formatted(y, width));
+			}
+			buffer.get(rowStart, data, y * width, width);
+			for (var i = y * width; i < (y + 1) * width; i++) {
+				if (data[i] == '\n' || data[i] == '\r') {
+					throw new IllegalStateException("row %d does not have the width %d".formatted(y, width));
+				}
+				if (decodeTable != null) {
+					final var code = decodeTable[data[i] & 0xFF];
+					if (code == ByteGrid.UNMAPPED) {
+						throw new IllegalStateException("Unexpected value: " + (char) (data[i] & 0xFF));
+					}
+					data[i] = (byte) code;
+				}
+			}
+		}
+		// only line breaks may follow the last row, anything else is a short row which would be dropped
+		for (var i = (height - 1) * stride + width; i < length; i++) {
+			if (buffer.get(i) != '\n' && buffer.get(i) != '\r') {
+				throw new IllegalStateException("row %d does not have the width %d".formatted(height, width));
+			}
+		}
+		return ByteGrid.wrap(height, width, data);
+	}
+
 	static String buildResourcePath(final int day, final String name) {
 		return "day%02d/%s.txt".formatted(day, name);
 	}
@@ -0,0 +1,38 @@
+package de.knallisworld.aoc2024.day18;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+import org.junit.jupiter.api.Test;
+
+import static de.knallisworld.aoc2024.support.puzzle.InputReader.readInputLines;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Day18Test {
+
+	@Test
+	void part2Example() {
+		final var input = Day18.readInput(readInputLines(18, "part0"));
+		assertThat(Day18.part2(input, 7))
+			.isEqualTo(Point2D.create(6, 1));
+		assertThat(Day18.part2_Streaming(input, 7))
+			.isEqualTo(Point2D.create(6, 1));
+	}
+
+	@Test
+	void part2NeverBlocked() {
+		// the first bytes of the example leave the exit reachable
+		final var input = Day18.readInput(readInputLines(18, "part0")).subList(0, 12);
+		assertThatThrownBy(() -> Day18.part2(input, 7))
+			.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> Day18.part2_Streaming(input, 7))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void part2StreamingAgrees() {
+		final var input = Day18.readInput(readInputLines(18, "part1"));
+		assertThat(Day18.part2_Streaming(input, 71))
+			.isEqualTo(Day18.part2(input, 71));
+	}
+
+}
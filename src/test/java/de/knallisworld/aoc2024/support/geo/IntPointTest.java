@@ -0,0 +1,68 @@
+package de.knallisworld.aoc2024.support.geo;
+
+import de.knallisworld.aoc2024.support.geo.grid2.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntPointTest {
+
+	@Test
+	void packAndUnpack() {
+		final var p = IntPoint.of(-3, 7);
+		assertThat(IntPoint.x(p))
+			.isEqualTo(-3);
+		assertThat(IntPoint.y(p))
+			.isEqualTo(7);
+		assertThat(IntPoint.of(Integer.MIN_VALUE, Integer.MAX_VALUE))
+			.extracting(IntPoint::x, IntPoint::y)
+			.containsExactly(Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	@Test
+	void adjacents4() {
+		final var adjacents = new ArrayList<Point2D<Integer>>();
+		IntPoint.forEachAdjacent4(IntPoint.of(3, 7), a -> adjacents.add(IntPoint.toPoint2D(a)));
+		assertThat(adjacents)
+			.containsExactlyElementsOf(Point2D.create(3, 7).getAdjacents4().toList());
+	}
+
+	@Test
+	void adjacents8() {
+		final var adjacents = new ArrayList<Point2D<Integer>>();
+		IntPoint.forEachAdjacent8(IntPoint.of(3, 7), a -> adjacents.add(IntPoint.toPoint2D(a)));
+		assertThat(adjacents)
+			.containsExactlyElementsOf(Point2D.create(3, 7).getAdjacents8().toList());
+	}
+
+	@Test
+	void directions() {
+		final var p = IntPoint.of(4, 5);
+		for (final var d : Direction.values()) {
+			assertThat(IntPoint.toPoint2D(d.move(p)))
+				.isEqualTo(Point2D.create(4, 5).add(d.offset()));
+		}
+	}
+
+	@Test
+	void manhattenDistance() {
+		final var a = IntPoint.of(1, 2);
+		final var b = IntPoint.of(4, 4);
+		assertThat(IntPoint.manhattenDistance(a, b))
+			.isEqualTo(Utils.manhattenDistance(Point2D.create(1, 2), Point2D.create(4, 4)));
+		assertThat(IntPoint.sub(b, a))
+			.isEqualTo(IntPoint.of(3, 2));
+		assertThat(IntPoint.add(a, IntPoint.of(-1, -2)))
+			.isEqualTo(IntPoint.of(0, 0));
+	}
+
+	@Test
+	void conversion() {
+		final var p = Point2D.create(12, -9);
+		assertThat(IntPoint.toPoint2D(IntPoint.fromPoint2D(p)))
+			.isEqualTo(p);
+	}
+
+}
@@ -1,11 +1,19 @@
 package de.knallisworld.aoc2024.support.geo;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.stream.IntStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class Point2DTest {
 
+	@AfterEach
+	void resetCache() {
+		Point2D.configureCache(Point2DCacheOptions.withDefault());
+	}
+
 	@Test
 	void adjacents4() {
 		final var p = Point2D.create(3, 7);
@@ -40,4 +48,58 @@ class Point2DTest {
 			);
 	}
 
+	@Test
+	void boundedCache() {
+		Point2D.configureCache(Point2DCacheOptions.bounded(64));
+		IntStream.range(0, 1000)
+				 .parallel()
+				 .forEach(i -> Point2D.create(i, i));
+		final var stats = Point2D.cacheStats();
+		assertThat(stats.misses())
+			.isEqualTo(1000);
+		assertThat(stats.size())
+			.isLessThanOrEqualTo(64);
+		assertThat(stats.evictions())
+			.isEqualTo(1000 - stats.size());
+	}
+
+	@Test
+	void boundedCacheBelowStripes() {
+		for (final var maxSize : new int[]{1, 4, 20}) {
+			Point2D.configureCache(Point2DCacheOptions.bounded(maxSize));
+			IntStream.range(0, 1000)
+					 .forEach(i -> Point2D.create(i, i));
+			assertThat(Point2D.cacheStats().size())
+				.isLessThanOrEqualTo(maxSize);
+		}
+	}
+
+	@Test
+	void unboundedCache() {
+		Point2D.configureCache(Point2DCacheOptions.unbounded());
+		final var distinct = IntStream.range(0, 10_000)
+									  .parallel()
+									  .mapToObj(i -> Point2D.create(i % 100, i % 100))
+									  .map(System::identityHashCode)
+									  .distinct()
+									  .count();
+		assertThat(distinct)
+			.isEqualTo(100);
+		final var stats = Point2D.cacheStats();
+		assertThat(stats.hits() + stats.misses())
+			.isEqualTo(10_000);
+		assertThat(stats.size())
+			.isEqualTo(100);
+	}
+
+	@Test
+	void cacheOff() {
+		Point2D.configureCache(Point2DCacheOptions.off());
+		assertThat(Point2D.create(1, 2))
+			.isEqualTo(Point2D.create(1, 2))
+			.isNotSameAs(Point2D.create(1, 2));
+		assertThat(Point2D.cacheStats().size())
+			.isZero();
+	}
+
 }
@@ -0,0 +1,54 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteKernelsTest {
+
+	@Test
+	void vectorMatchesScalar() {
+		final var scalar = ByteKernels.scalar();
+		final var vector = ByteKernels.vector();
+		final var random = new Random(13);
+		final var data = new byte[1000];
+		for (var i = 0; i < data.length; i++) {
+			data[i] = (byte) random.nextInt(3);
+		}
+		final var mask = new long[ByteKernels.maskWords(1000)];
+		final var expectedMask = new long[mask.length];
+		for (var n = 0; n < 200; n++) {
+			final var from = random.nextInt(500);
+			final var length = random.nextInt(499);
+			assertThat(vector.countEqual(data, from, length, (byte) 1))
+				.isEqualTo(scalar.countEqual(data, from, length, (byte) 1));
+			assertThat(vector.countEqualPairs(data, from, from + 1, length))
+				.isEqualTo(scalar.countEqualPairs(data, from, from + 1, length));
+			vector.equalMask(data, from, length, (byte) 2, mask);
+			scalar.equalMask(data, from, length, (byte) 2, expectedMask);
+			assertThat(mask)
+				.isEqualTo(expectedMask);
+			assertThat(vector.countEqualMasked(data, 0, length, (byte) 0, mask))
+				.isEqualTo(scalar.countEqualMasked(data, 0, length, (byte) 0, mask));
+		}
+	}
+
+	@Test
+	void grid() {
+		final var grid = ByteGrid.parse(List.of(
+			"AAAA",
+			"BBCD",
+			"BBCC",
+			"EEEC"
+		));
+		assertThat(grid.count((byte) 'C'))
+			.isEqualTo(4);
+		// total perimeter of all regions is 4 * cells - 2 * equal adjacent pairs
+		assertThat(4 * grid.size() - 2 * grid.countEqualAdjacentPairs())
+			.isEqualTo(ComponentLabeling.label(grid).components().stream().mapToInt(ComponentLabeling.Component::perimeter).sum());
+	}
+
+}
@@ -0,0 +1,67 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkedGridTest {
+
+	@Test
+	void readWrite() {
+		final var random = new Random(7);
+		final var grid = ChunkedGrid.<Integer>empty();
+		final var expected = new HashMap<Point2D<Integer>, Integer>();
+		for (var i = 0; i < 5000; i++) {
+			final var p = Point2D.createInt(random.nextInt(-300, 300), random.nextInt(-300, 300));
+			if (random.nextInt(4) == 0) {
+				grid.clearValue(p);
+				expected.remove(p);
+			} else {
+				grid.setValue(p, i);
+				expected.put(p, i);
+			}
+		}
+		assertThat(grid.size())
+			.isEqualTo(expected.size());
+		expected.forEach((p, v) -> assertThat(grid.get(p.getX(), p.getY())).isEqualTo(v));
+		assertThat(grid.stream().count())
+			.isEqualTo(expected.size());
+		assertThat(grid.has(-1000, 1000))
+			.isFalse();
+	}
+
+	@Test
+	void tilesReleased() {
+		final var grid = ChunkedGrid.<String>empty();
+		grid.set(-1, -1, "a");
+		grid.set(0, 0, "b");
+		grid.set(ChunkedGrid.TILE_SIZE, 0, "c");
+		assertThat(grid.tileCount())
+			.isEqualTo(3);
+		grid.clear(-1, -1);
+		assertThat(grid.tileCount())
+			.isEqualTo(2);
+		assertThat(grid.getValue(Point2D.createInt(0, 0)))
+			.contains("b");
+	}
+
+	@Test
+	void adjacents4() {
+		final var grid = ChunkedGrid.<String>empty();
+		// one within a tile, one across a tile border
+		for (final var p : List.of(Point2D.createInt(10, 10), Point2D.createInt(0, 0))) {
+			p.getAdjacents4().forEach(a -> grid.setValue(a, a.toString()));
+			final var found = new ArrayList<String>();
+			grid.forEachAdjacent4(p.getX(), p.getY(), (x, y, v) -> found.add(v));
+			assertThat(found)
+				.containsExactlyElementsOf(p.getAdjacents4().map(Point2D::toString).toList());
+		}
+	}
+
+}
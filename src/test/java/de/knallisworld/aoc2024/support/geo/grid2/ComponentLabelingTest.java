@@ -0,0 +1,67 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComponentLabelingTest {
+
+	@Test
+	void statistics() {
+		final var grid = CharGrid.parse(List.of(
+			"AAAA",
+			"BBCD",
+			"BBCC",
+			"EEEC"
+		));
+		final var result = ComponentLabeling.label(grid);
+		assertThat(result.components())
+			.hasSize(5);
+		assertThat(result.components().stream().mapToLong(c -> (long) c.area() * c.perimeter()).sum())
+			.isEqualTo(140);
+		assertThat(result.components().stream().mapToLong(c -> (long) c.area() * c.corners()).sum())
+			.isEqualTo(80);
+		final var c = result.componentOf(2, 1);
+		assertThat(c)
+			.extracting(ComponentLabeling.Component::area, ComponentLabeling.Component::corners,
+						ComponentLabeling.Component::width, ComponentLabeling.Component::height)
+			.containsExactly(4, 8, 2, 3);
+	}
+
+	@Test
+	void enclosedRegion() {
+		final var grid = CharGrid.parse(List.of(
+			"OOOOO",
+			"OXOXO",
+			"OOOOO",
+			"OXOXO",
+			"OOOOO"
+		));
+		final var result = ComponentLabeling.label(grid);
+		assertThat(result.components())
+			.hasSize(5);
+		assertThat(result.componentOf(0, 0))
+			.extracting(ComponentLabeling.Component::area, ComponentLabeling.Component::perimeter,
+						ComponentLabeling.Component::corners)
+			.containsExactly(21, 36, 20);
+	}
+
+	@Test
+	void parallel() {
+		final var random = new Random(42);
+		final var grid = ByteGrid.create(97, 101);
+		for (var i = 0; i < grid.size(); i++) {
+			grid.set(i, (byte) random.nextInt(3));
+		}
+		final var expected = ComponentLabeling.label(grid);
+		final var actual = ComponentLabeling.labelParallel(grid.getWidth(), grid.getHeight(), grid::sameValue, 7);
+		assertThat(actual.components())
+			.isEqualTo(expected.components());
+		assertThat(actual.labels())
+			.isEqualTo(expected.labels());
+	}
+
+}
@@ -0,0 +1,52 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DistanceFieldTest {
+
+	static final CharGrid TRACK = CharGrid.parse(List.of(
+		"#####",
+		"#S#E#",
+		"#.#.#",
+		"#...#",
+		"#####"
+	));
+
+	@Test
+	void distances() {
+		final var start = TRACK.index(1, 1);
+		final var goal = TRACK.index(3, 1);
+		final var fields = DistanceField.bfsAll(TRACK.getWidth(), TRACK.getHeight(), i -> TRACK.get(i) != '#', new int[]{start}, new int[]{goal});
+		assertThat(fields.getFirst().get(goal))
+			.isEqualTo(6);
+		assertThat(fields.getLast().get(start))
+			.isEqualTo(6);
+		assertThat(fields.getFirst().reached(TRACK.index(2, 1)))
+			.isFalse();
+		assertThat(DistanceField.shortest(fields.getFirst(), fields.getLast()))
+			.isEqualTo(6);
+		// through the wall between S and E
+		assertThat(DistanceField.countShortcuts(fields.getFirst(), fields.getLast(), 2, 4))
+			.isEqualTo(1);
+		final var weighted = DistanceField.dijkstra(TRACK.getWidth(), TRACK.getHeight(), i -> TRACK.get(i) != '#', i -> 2, start);
+		assertThat(weighted.get(goal))
+			.isEqualTo(12);
+	}
+
+	@Test
+	void within() {
+		final var field = DistanceField.bfs(TRACK, _ -> true, 0);
+		final var count = new int[1];
+		field.forEachWithin(TRACK.index(2, 2), 2, (_, d) -> {
+			assertThat(d).isBetween(1, 2);
+			count[0]++;
+		});
+		assertThat(count[0])
+			.isEqualTo(12);
+	}
+
+}
@@ -85,4 +85,27 @@ class DynGridTest {
 				Point2D.create(5, 5)
 			);
 	}
+
+	@Test
+	void bounds() {
+		final var grid = DynGrid.<Integer, Boolean>empty();
+		for (var i = 0; i < 100; i++) {
+			grid.setValue(Point2D.create(i - 50, 2 * i), true);
+		}
+		assertThat(new long[]{grid.minX(), grid.maxX(), grid.minY(), grid.maxY()})
+			.containsExactly(-50, 49, 0, 198);
+		grid.clearValue(Point2D.create(-50, 0));
+		grid.clearValue(Point2D.create(49, 198));
+		assertThat(new long[]{grid.minX(), grid.maxX(), grid.minY(), grid.maxY()})
+			.containsExactly(-49, 48, 2, 196);
+		assertThat(grid.count())
+			.isEqualTo(98);
+		assertThat(grid.has(Point2D.create(-50, 0)))
+			.isFalse();
+		assertThat(grid.has(Point2D.create(-49, 2)))
+			.isTrue();
+		assertThat(grid.fields().stream().count())
+			.isEqualTo(98);
+	}
+
 }
@@ -0,0 +1,56 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GridPatternTest {
+
+	static final ByteGrid GRID = ByteGrid.parse(List.of(
+		"MMMSXXMASM",
+		"MSAMXMSMSA",
+		"AMXSXMAAMM",
+		"MSAMASMSMX",
+		"XMASAMXAMM",
+		"XXAMMXXAMA",
+		"SMSMSASXSS",
+		"SAXAMASAAA",
+		"MAMMMXMMMM",
+		"MXMXAXMASX"
+	));
+
+	@Test
+	void words() {
+		final var pattern = GridPattern.compileAllOrientations(
+			GridPattern.Stencil.horizontal("XMAS"),
+			GridPattern.Stencil.diagonal("XMAS")
+		);
+		assertThat(pattern.variants())
+			.isEqualTo(8);
+		assertThat(pattern.count(GRID))
+			.isEqualTo(18);
+		assertThat(GridPattern.compile(GridPattern.Stencil.horizontal("XMAS")).positions(GRID))
+			.containsExactly(GRID.index(5, 0), GRID.index(0, 4), GRID.index(5, 9));
+	}
+
+	@Test
+	void crosses() {
+		final var pattern = GridPattern.compileAllOrientations(
+			GridPattern.Stencil.parse(List.of(
+				"M.S",
+				".A.",
+				"M.S"
+			), '.')
+		);
+		assertThat(pattern.variants())
+			.isEqualTo(4);
+		assertThat(pattern.count(GRID))
+			.isEqualTo(9);
+		assertThat(pattern.positions(GRID))
+			.hasSize(9)
+			.isSorted();
+	}
+
+}
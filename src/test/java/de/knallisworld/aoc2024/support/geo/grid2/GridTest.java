@@ -1,7 +1,12 @@
 package de.knallisworld.aoc2024.support.geo.grid2;
 
+import de.knallisworld.aoc2024.support.geo.Point2D;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 class GridTest {
 
 	@Test
@@ -10,4 +15,57 @@ class GridTest {
 		grid.setValue(1, 1, "2");
 	}
 
+	@Test
+	void linearIndex() {
+		final var grid = new FixGrid<>(String.class, 2, 3);
+		grid.setValue(2, 1, "a");
+		final var index = grid.index(2, 1);
+		assertThat(index)
+			.isEqualTo(5);
+		assertThat(grid.pos(index))
+			.isEqualTo(Point2D.create(2, 1));
+		assertThat(grid.getValueAt(index))
+			.isEqualTo("a");
+		assertThat(grid.hasValue(index))
+			.isTrue();
+		assertThat(grid.hasValue(0))
+			.isFalse();
+	}
+
+	@Test
+	void neighbours() {
+		final var grid = new FixGrid<>(String.class, 3, 3);
+		final var corner = new ArrayList<Point2D<Integer>>();
+		grid.forEachNeighbour4(grid.index(0, 0), i -> corner.add(grid.pos(i)));
+		assertThat(corner)
+			.containsExactly(Point2D.create(1, 0), Point2D.create(0, 1));
+
+		final var center = new ArrayList<Point2D<Integer>>();
+		grid.forEachNeighbour8(grid.index(1, 1), i -> center.add(grid.pos(i)));
+		assertThat(center)
+			.containsExactlyElementsOf(Point2D.create(1, 1).getAdjacents8().toList());
+
+		assertThat(grid.neighbours().adjacent4(grid.index(2, 2), 1))
+			.isEqualTo(NeighbourTable.NONE);
+	}
+
+	@Test
+	void stateHash() {
+		final var grid = new FixGrid<>(String.class, 2, 3).trackStateHash();
+		final var empty = grid.stateHash();
+		grid.setValue(2, 1, "a");
+		final var one = grid.stateHash();
+		assertThat(one)
+			.isNotEqualTo(empty);
+		grid.setValue(grid.index(0, 0), "b");
+		grid.setValue(0, 0, null);
+		assertThat(grid.stateHash())
+			.isEqualTo(one);
+		assertThat(FixGrid.copy(grid).stateHash())
+			.isEqualTo(one);
+		grid.setValue(2, 1, null);
+		assertThat(grid.stateHash())
+			.isEqualTo(empty);
+	}
+
 }
@@ -0,0 +1,88 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GridViewTest {
+
+	// 3 wide, 2 high
+	static final CharGrid GRID = CharGrid.parse(List.of(
+		"abc",
+		"def"
+	));
+
+	static String render(final GridView<Character> view) {
+		return view.toString((_, v) -> String.valueOf(v));
+	}
+
+	@Test
+	void orientations() {
+		final var view = GRID.view();
+		assertThat(render(view.oriented(Orientation.ROTATE_90)))
+			.isEqualTo("da\neb\nfc\n");
+		assertThat(render(view.oriented(Orientation.ROTATE_180)))
+			.isEqualTo("fed\ncba\n");
+		assertThat(render(view.oriented(Orientation.ROTATE_270)))
+			.isEqualTo("cf\nbe\nad\n");
+		assertThat(render(view.oriented(Orientation.FLIP_X)))
+			.isEqualTo("cba\nfed\n");
+		assertThat(render(view.oriented(Orientation.FLIP_Y)))
+			.isEqualTo("def\nabc\n");
+		assertThat(render(view.oriented(Orientation.TRANSPOSE)))
+			.isEqualTo("ad\nbe\ncf\n");
+		assertThat(render(view.oriented(Orientation.ANTI_TRANSPOSE)))
+			.isEqualTo("fc\neb\nda\n");
+	}
+
+	@Test
+	void composition() {
+		final var view = GRID.view();
+		assertThat(render(view.oriented(Orientation.ROTATE_90).oriented(Orientation.ROTATE_90)))
+			.isEqualTo(render(view.oriented(Orientation.ROTATE_180)));
+		assertThat(render(view.oriented(Orientation.ROTATE_90).oriented(Orientation.FLIP_X)))
+			.isEqualTo(render(view.oriented(Orientation.TRANSPOSE)));
+		final var window = view.oriented(Orientation.ROTATE_180).window(1, 0, 2, 2);
+		assertThat(render(window))
+			.isEqualTo("ed\nba\n");
+		assertThat(window.sourceOf(0, 0))
+			.isEqualTo(Point2D.create(1, 1));
+		assertThat(render(window.oriented(Orientation.TRANSPOSE)))
+			.isEqualTo("eb\nda\n");
+	}
+
+	@Test
+	void materialize() {
+		final var grid = FixGrid.create(Integer.class, 70, 130);
+		for (var y = 0; y < grid.getHeight(); y++) {
+			for (var x = 0; x < grid.getWidth(); x++) {
+				grid.setValue(x, y, y * 1000 + x);
+			}
+		}
+		final var rotated = grid.view().oriented(Orientation.ROTATE_90).materialize();
+		assertThat(rotated.getWidth())
+			.isEqualTo(70);
+		assertThat(rotated.getValueRequired(0, 0))
+			.isEqualTo(69 * 1000);
+		assertThat(rotated.getValueRequired(69, 129))
+			.isEqualTo(129);
+		assertThat(rotated.view().oriented(Orientation.ROTATE_270).materialize())
+			.isEqualTo(grid);
+	}
+
+	@Test
+	void subIsInclusive() {
+		final var grid = GRID.toFixGrid();
+		final var sub = grid.sub(Point2D.create(1, 0), Point2D.create(2, 1));
+		assertThat(sub.getWidth())
+			.isEqualTo(2);
+		assertThat(sub.getHeight())
+			.isEqualTo(2);
+		assertThat(sub)
+			.isEqualTo(grid.view().window(Point2D.create(1, 0), Point2D.create(2, 1)).materialize());
+	}
+
+}
@@ -0,0 +1,36 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalShortestPathTest {
+
+	@Test
+	void matchesFullSearch() {
+		final var size = 20;
+		for (var seed = 0; seed < 5; seed++) {
+			final var random = new Random(seed);
+			final var search = new IncrementalShortestPath(size, size, 0, size * size - 1);
+			assertThat(search.distance())
+				.isEqualTo(2 * (size - 1));
+			final var blocked = new boolean[size * size];
+			var events = 0;
+			while (search.distance() != IncrementalShortestPath.UNREACHED) {
+				final var index = random.nextInt(1, size * size - 1);
+				blocked[index] = true;
+				events++;
+				final var actual = search.block(index);
+				final var expected = DistanceField.bfs(size, size, i -> !blocked[i], 0).get(size * size - 1);
+				assertThat(actual)
+					.isEqualTo(expected == DistanceField.UNREACHED ? IncrementalShortestPath.UNREACHED : expected);
+			}
+			// events off the path are not repaired
+			assertThat(search.repairs())
+				.isLessThan(events);
+		}
+	}
+
+}
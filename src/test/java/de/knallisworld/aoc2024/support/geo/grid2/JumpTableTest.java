@@ -0,0 +1,84 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JumpTableTest {
+
+	@Test
+	void jump() {
+		final var grid = FixGrid.parseBySymbols2D(Character.class, List.of(
+			"..#.",
+			"....",
+			"#..."
+		), c -> c);
+		final var jumps = JumpTable.of(grid, c -> c == '#');
+		assertThat(jumps.jump(grid.index(0, 0), Direction.East))
+			.isEqualTo(grid.index(1, 0));
+		assertThat(jumps.jump(grid.index(1, 0), Direction.East))
+			.isEqualTo(grid.index(1, 0));
+		assertThat(jumps.jump(grid.index(0, 0), Direction.South))
+			.isEqualTo(grid.index(0, 1));
+		assertThat(jumps.jump(grid.index(3, 2), Direction.North))
+			.isEqualTo(JumpTable.EXIT);
+		// patched
+		assertThat(jumps.jump(grid.index(3, 2), Direction.North, grid.index(3, 0)))
+			.isEqualTo(grid.index(3, 1));
+		assertThat(jumps.jump(grid.index(3, 1), Direction.South, grid.index(3, 0)))
+			.isEqualTo(JumpTable.EXIT);
+	}
+
+	@Test
+	void matchesStepping() {
+		final var random = new Random(42);
+		final var width = 13;
+		final var height = 9;
+		for (var round = 0; round < 20; round++) {
+			final var blocked = new boolean[width * height];
+			for (var i = 0; i < blocked.length; i++) {
+				blocked[i] = random.nextInt(5) == 0;
+			}
+			final var jumps = JumpTable.of(width, height, i -> blocked[i]);
+			for (var index = 0; index < blocked.length; index++) {
+				if (blocked[index]) {
+					continue;
+				}
+				final var obstacle = random.nextInt(blocked.length);
+				for (final var direction : Direction.values()) {
+					assertThat(jumps.jump(index, direction))
+						.isEqualTo(step(blocked, width, height, index, direction, JumpTable.NONE));
+					assertThat(jumps.jump(index, direction, obstacle))
+						.isEqualTo(step(blocked, width, height, index, direction, obstacle));
+				}
+			}
+		}
+	}
+
+	private static int step(final boolean[] blocked,
+							final int width,
+							final int height,
+							final int index,
+							final Direction direction,
+							final int obstacle) {
+		var x = index % width;
+		var y = index / width;
+		while (true) {
+			final var nx = x + direction.dx();
+			final var ny = y + direction.dy();
+			if (nx < 0 || nx >= width || ny < 0 || ny >= height) {
+				return JumpTable.EXIT;
+			}
+			final var next = ny * width + nx;
+			if (blocked[next] || next == obstacle) {
+				return y * width + x;
+			}
+			x = nx;
+			y = ny;
+		}
+	}
+
+}
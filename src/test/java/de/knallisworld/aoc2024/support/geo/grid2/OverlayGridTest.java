@@ -0,0 +1,74 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OverlayGridTest {
+
+	private static FixGrid<String> base() {
+		final var grid = FixGrid.create(String.class, 2, 3);
+		grid.fill(".");
+		grid.setValue(1, 1, "#");
+		return grid;
+	}
+
+	@Test
+	void overrides() {
+		final var base = base();
+		final var overlay = OverlayGrid.of(base);
+		overlay.setValue(0, 0, "#");
+		overlay.setValue(1, 1, null);
+
+		assertThat(overlay.getValueRequired(0, 0))
+			.isEqualTo("#");
+		assertThat(overlay.hasValue(1, 1))
+			.isFalse();
+		assertThat(overlay.getValue(1, 1))
+			.isEmpty();
+		assertThat(overlay.getValue(2, 1))
+			.contains(".");
+		assertThat(overlay.hasValue(3, 0))
+			.isFalse();
+		assertThat(overlay.overrides())
+			.isEqualTo(2);
+
+		// base untouched
+		assertThat(base.getValueRequired(0, 0))
+			.isEqualTo(".");
+		assertThat(base.getValueRequired(1, 1))
+			.isEqualTo("#");
+	}
+
+	@Test
+	void revertAndReset() {
+		final var overlay = OverlayGrid.of(base());
+		overlay.setValue(0, 0, "#");
+		overlay.setValue(2, 0, "#");
+		overlay.revert(0, 0);
+		assertThat(overlay.getValueAt(overlay.index(0, 0)))
+			.isEqualTo(".");
+		overlay.reset();
+		assertThat(overlay.overrides())
+			.isZero();
+		assertThat(overlay.materialize(String.class))
+			.isEqualTo(base());
+	}
+
+	@Test
+	void stacked() {
+		final var lower = OverlayGrid.of(base());
+		lower.setValue(0, 0, "a");
+		final var upper = OverlayGrid.of(lower);
+		upper.setValue(0, 1, "b");
+		assertThat(upper.materialize(String.class).toString((_, v) -> v))
+			.isEqualTo("a..\nb#.\n");
+		assertThatThrownBy(() -> upper.setValue(0, 2, "c"))
+			.isInstanceOf(IndexOutOfBoundsException.class);
+		// would wrap into the next row by index
+		assertThatThrownBy(() -> upper.getValueRequired(3, 0))
+			.isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+}
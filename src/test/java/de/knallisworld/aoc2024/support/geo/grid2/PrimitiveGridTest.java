@@ -0,0 +1,78 @@
+package de.knallisworld.aoc2024.support.geo.grid2;
+
+import de.knallisworld.aoc2024.support.geo.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrimitiveGridTest {
+
+	static final List<String> LINES = List.of(
+		"#..#",
+		".##.",
+		"#..#"
+	);
+
+	enum Tile {
+		EMPTY, WALL
+	}
+
+	@Test
+	void parseAndAccess() {
+		final var grid = EnumGrid.parse(Tile.class, LINES, ch -> ch == '#' ? Tile.WALL : Tile.EMPTY);
+		assertThat(grid.getWidth())
+			.isEqualTo(4);
+		assertThat(grid.getHeight())
+			.isEqualTo(3);
+		assertThat(grid.get(1, 1))
+			.isEqualTo(Tile.WALL);
+		assertThat(grid.get(grid.index(2, 2)))
+			.isEqualTo(Tile.EMPTY);
+		assertThat(grid.getValue(Point2D.create(4, 0)))
+			.isEmpty();
+		assertThat(grid.toFixGrid().getValueRequired(3, 2))
+			.isEqualTo(Tile.WALL);
+		assertThat(grid.fields().stream().filter(f -> f.value() == Tile.WALL).count())
+			.isEqualTo(6);
+	}
+
+	@Test
+	void sub() {
+		final var grid = CharGrid.parse(LINES);
+		final var sub = grid.sub(Point2D.create(1, 0), Point2D.create(2, 1));
+		assertThat(sub.toString((_, v) -> String.valueOf(v)))
+			.isEqualTo("..\n##\n");
+	}
+
+	@Test
+	void rotate() {
+		final var grid = IntGrid.parseDigits(List.of(
+			"123",
+			"456",
+			"789"
+		));
+		final var reference = grid.toFixGrid();
+		grid.transform().rotateRight();
+		reference.transform().rotateRight();
+		assertThat(grid.toFixGrid())
+			.isEqualTo(reference);
+		grid.transform().rotateLeft(3);
+		reference.transform().rotateLeft(3);
+		assertThat(grid.toFixGrid())
+			.isEqualTo(reference);
+		assertThat(grid.get(1, 1))
+			.isEqualTo(5);
+	}
+
+	@Test
+	void cluster() {
+		final var grid = ByteGrid.parse(LINES);
+		assertThat(grid.fields().getCluster4(Point2D.create(1, 0), f -> f.value() == '.').toList())
+			.containsExactlyInAnyOrder(Point2D.create(1, 0), Point2D.create(2, 0));
+		assertThat(grid.fields().getCluster4(Point2D.create(0, 1), f -> f.value() == '.').count())
+			.isEqualTo(1);
+	}
+
+}
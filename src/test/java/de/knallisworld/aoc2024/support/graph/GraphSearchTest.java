@@ -0,0 +1,106 @@
+package de.knallisworld.aoc2024.support.graph;
+
+import de.knallisworld.aoc2024.support.geo.grid2.CharGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphSearchTest {
+
+	static final CharGrid MAZE = CharGrid.parse(List.of(
+		".....",
+		".###.",
+		"...#.",
+		".#...",
+		"....."
+	));
+
+	static GraphSearch.Neighbours open(final CharGrid grid) {
+		return (index, consumer) -> grid.forEachNeighbour4(index, a -> {
+			if (grid.get(a) == '.') {
+				consumer.accept(a);
+			}
+		});
+	}
+
+	@Test
+	void bfs() {
+		final var goal = MAZE.index(4, 4);
+		final var result = GraphSearch.bfs(MAZE.size(), new int[]{0}, open(MAZE), o -> o.predecessors(true));
+		assertThat(result.distance(goal))
+			.isEqualTo(8);
+		assertThat(result.path(goal))
+			.hasSize(9)
+			.startsWith(0)
+			.endsWith(goal);
+		assertThat(result.reached(MAZE.index(1, 1)))
+			.isFalse();
+	}
+
+	@Test
+	void dijkstraAndAStarAgree() {
+		final var random = new Random(3);
+		final var costs = new int[400];
+		for (var i = 0; i < costs.length; i++) {
+			costs[i] = 1 + random.nextInt(9);
+		}
+		final GraphSearch.Edges edges = (state, consumer) -> {
+			final var x = state % 20;
+			final var y = state / 20;
+			if (x > 0) consumer.accept(state - 1, costs[state - 1]);
+			if (x < 19) consumer.accept(state + 1, costs[state + 1]);
+			if (y > 0) consumer.accept(state - 20, costs[state - 20]);
+			if (y < 19) consumer.accept(state + 20, costs[state + 20]);
+		};
+		final var goal = 399;
+		final var dijkstra = GraphSearch.dijkstra(400, 0, edges);
+		final var aStar = GraphSearch.aStar(400, 0, edges, s -> (19 - s % 20) + (19 - s / 20), s -> s == goal, true);
+		assertThat(aStar.distance(goal))
+			.isEqualTo(dijkstra.distance(goal));
+		assertThat(aStar.target())
+			.isEqualTo(goal);
+		final var sparse = GraphSearch.dijkstra(0L, (state, consumer) -> edges.forEach((int) state, consumer::accept), s -> s == goal);
+		assertThat(sparse)
+			.isEqualTo(dijkstra.distance(goal));
+	}
+
+	@Test
+	void allShortestPaths() {
+		final var grid = CharGrid.parse(List.of(
+			"...",
+			"...",
+			"..."
+		));
+		final var goal = grid.index(2, 2);
+		final var dag = GraphSearch.dijkstraAll(grid.size(), new int[]{0}, (s, c) -> open(grid).forEach(s, a -> c.accept(a, 1)), SearchOptions.until(s -> s == goal));
+		assertThat(dag.distance(goal))
+			.isEqualTo(4);
+		assertThat(dag.backtrack(goal).cardinality())
+			.isEqualTo(9);
+		assertThat(dag.backtrack(grid.index(2, 0)).cardinality())
+			.isEqualTo(3);
+	}
+
+	@Test
+	void heap() {
+		final var random = new Random(5);
+		final var heap = new PrimitiveHeap(1);
+		final var values = random.longs(1000, -500, 500).toArray();
+		for (final var v : values) {
+			heap.add(v, -v);
+		}
+		var last = Long.MIN_VALUE;
+		while (!heap.isEmpty()) {
+			final var priority = heap.peekPriority();
+			assertThat(heap.poll())
+				.isEqualTo(-priority);
+			assertThat(priority)
+				.isGreaterThanOrEqualTo(last);
+			last = priority;
+		}
+	}
+
+}
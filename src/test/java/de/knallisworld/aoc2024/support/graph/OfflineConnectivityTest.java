@@ -0,0 +1,48 @@
+package de.knallisworld.aoc2024.support.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfflineConnectivityTest {
+
+	@Test
+	void matchesSearchPerPrefix() {
+		final var size = 15;
+		final var random = new Random(11);
+		final var events = random.ints(150, 0, size * size)
+								 .filter(i -> i != 0 && i != size * size - 1)
+								 .toArray();
+		final var actual = OfflineConnectivity.firstDisconnectingInGrid(size, size, events, 0, size * size - 1);
+
+		var expected = OfflineConnectivity.NONE;
+		for (var n = 1; n <= events.length; n++) {
+			final var blocked = new boolean[size * size];
+			Arrays.stream(events, 0, n).forEach(i -> blocked[i] = true);
+			final var result = GraphSearch.bfs(size * size, 0, (index, consumer) -> {
+				final var x = index % size;
+				if (index >= size && !blocked[index - size]) consumer.accept(index - size);
+				if (x < size - 1 && !blocked[index + 1]) consumer.accept(index + 1);
+				if (index + size < size * size && !blocked[index + size]) consumer.accept(index + size);
+				if (x > 0 && !blocked[index - 1]) consumer.accept(index - 1);
+			});
+			if (!result.reached(size * size - 1)) {
+				expected = n - 1;
+				break;
+			}
+		}
+		assertThat(actual)
+			.isEqualTo(expected)
+			.isNotEqualTo(OfflineConnectivity.NONE);
+	}
+
+	@Test
+	void staysConnected() {
+		assertThat(OfflineConnectivity.firstDisconnectingInGrid(3, 3, new int[]{1, 4}, 0, 8))
+			.isEqualTo(OfflineConnectivity.NONE);
+	}
+
+}
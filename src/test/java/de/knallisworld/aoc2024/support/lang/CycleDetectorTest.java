@@ -0,0 +1,55 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.LongUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CycleDetectorTest {
+
+	// 0 -> 1 -> ... -> 6 -> 3: cycle of length 4 starting at index 3
+	private static final LongUnaryOperator RHO = x -> x < 6 ? x + 1 : 3;
+
+	@Test
+	void floyd() {
+		assertThat(CycleDetector.floyd(0, RHO))
+			.isEqualTo(new CycleDetector.Cycle(3, 4));
+	}
+
+	@Test
+	void brent() {
+		assertThat(CycleDetector.brent(0, RHO))
+			.isEqualTo(new CycleDetector.Cycle(3, 4));
+		assertThat(CycleDetector.brent(5, x -> x))
+			.isEqualTo(new CycleDetector.Cycle(0, 1));
+	}
+
+	@Test
+	void streaming() {
+		for (final var detector : new CycleDetector[]{CycleDetector.brent(), CycleDetector.seenSet()}) {
+			var state = 0L;
+			var steps = 0;
+			while (!detector.offer(state)) {
+				state = RHO.applyAsLong(state);
+				steps++;
+			}
+			assertThat(detector.cycleLength())
+				.isEqualTo(4);
+			assertThat(steps)
+				.isLessThan(20);
+		}
+	}
+
+	@Test
+	void streamingWithoutCycle() {
+		final var detector = CycleDetector.brent();
+		for (var i = 0; i < 1000; i++) {
+			assertThat(detector.offer(i))
+				.isFalse();
+		}
+		assertThat(detector.cycleLength())
+			.isZero();
+	}
+
+}
@@ -0,0 +1,88 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.recordStats;
+import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.threadSafe;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongMemoizationTest {
+
+	@Test
+	void recursive() {
+		final var loads = new AtomicInteger();
+		final var fib = LongMemoization.memoizeRecursive((self, n) -> {
+			loads.incrementAndGet();
+			return n < 2 ? n : self.applyAsLong(n - 1) + self.applyAsLong(n - 2);
+		});
+		assertThat(fib.applyAsLong(90))
+			.isEqualTo(2880067194370816120L);
+		assertThat(loads)
+			.hasValue(91);
+	}
+
+	@Test
+	void stats() {
+		final var fib = LongMemoization.memoizeRecursive(
+			(self, n) -> n < 2 ? n : self.applyAsLong(n - 1) + self.applyAsLong(n - 2),
+			recordStats("fib")
+		);
+		fib.applyAsLong(10);
+		fib.applyAsLong(10);
+		final var stats = Memoization.drainStats();
+		assertThat(stats)
+			.hasSize(1);
+		assertThat(stats.getFirst().name())
+			.isEqualTo("fib");
+		assertThat(stats.getFirst().loads())
+			.isEqualTo(11);
+		assertThat(stats.getFirst().misses())
+			.isEqualTo(11);
+		// fib(n - 2) of each load after the first two, and the second call
+		assertThat(stats.getFirst().hits())
+			.isEqualTo(9);
+		assertThat(stats.getFirst().size())
+			.isEqualTo(11);
+
+		assertThatThrownBy(() -> LongMemoization.memoizeRecursive((_, n) -> n, threadSafe()))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void valueOfSentinel() {
+		final var loads = new AtomicInteger();
+		final var f = LongMemoization.memoize(_ -> {
+			loads.incrementAndGet();
+			return Long.MIN_VALUE;
+		});
+		f.applyAsLong(1);
+		assertThat(f.applyAsLong(1))
+			.isEqualTo(Long.MIN_VALUE);
+		assertThat(loads)
+			.hasValue(1);
+	}
+
+	@Test
+	void packed() {
+		assertThat(LongMemoization.high(LongMemoization.pack(-3, -7)))
+			.isEqualTo(-3);
+		assertThat(LongMemoization.low(LongMemoization.pack(-3, -7)))
+			.isEqualTo(-7);
+
+		final var loads = new AtomicInteger();
+		final var grid = LongMemoization.memoize((int x, int y) -> {
+			loads.incrementAndGet();
+			return (long) x * y;
+		});
+		assertThat(grid.applyAsLong(3, -4))
+			.isEqualTo(-12);
+		assertThat(grid.applyAsLong(3, -4))
+			.isEqualTo(-12);
+		assertThat(loads)
+			.hasValue(1);
+	}
+
+}
@@ -0,0 +1,84 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedLongStoreTest {
+
+	@TempDir
+	Path directory;
+
+	private static LongLongHashMap entries(final MappedLongStore store) {
+		final var result = new LongLongHashMap();
+		store.forEach(result::put);
+		return result;
+	}
+
+	@Test
+	void reopen() {
+		final var store = MappedLongStore.open(directory, "squares", List.of("input"));
+		for (var i = 0; i < 5000; i++) {
+			store.append(i, (long) i * i);
+		}
+		store.force();
+
+		final var reopened = MappedLongStore.open(directory, "squares", List.of("input"));
+		assertThat(reopened.size())
+			.isEqualTo(5000);
+		assertThat(entries(reopened).get(4321, -1))
+			.isEqualTo(4321L * 4321);
+
+		assertThat(MappedLongStore.open(directory, "squares", List.of("other input")).size())
+			.isZero();
+		assertThat(MappedLongStore.open(directory, "cubes", List.of("input")).size())
+			.isZero();
+	}
+
+	@Test
+	void tornEntry() throws Exception {
+		final var store = MappedLongStore.open(directory, "f", List.of("input"));
+		for (var i = 0; i < 10; i++) {
+			store.append(i, i);
+		}
+		store.force();
+		// corrupt the value of the 8th entry
+		try (final var file = new RandomAccessFile(store.file().toFile(), "rw")) {
+			file.seek(32 + 7 * 24 + 8);
+			file.writeLong(42);
+		}
+		final var reopened = MappedLongStore.open(directory, "f", List.of("input"));
+		assertThat(reopened.size())
+			.isEqualTo(7);
+		reopened.append(100, 100);
+		assertThat(MappedLongStore.open(directory, "f", List.of("input")).size())
+			.isEqualTo(8);
+	}
+
+	@Test
+	void warmMemoization() {
+		final var loads = new AtomicInteger();
+		final LongMemoization.RecursiveLoader fib = (self, n) -> {
+			loads.incrementAndGet();
+			return n < 2 ? n : self.applyAsLong(n - 1) + self.applyAsLong(n - 2);
+		};
+		assertThat(LongMemoization.memoizeRecursive(fib, MappedLongStore.open(directory, "fib", List.of()))
+								  .applyAsLong(80))
+			.isEqualTo(23416728348467685L);
+		assertThat(loads)
+			.hasValue(81);
+		// second run starts warm
+		assertThat(LongMemoization.memoizeRecursive(fib, MappedLongStore.open(directory, "fib", List.of()))
+								  .applyAsLong(80))
+			.isEqualTo(23416728348467685L);
+		assertThat(loads)
+			.hasValue(81);
+	}
+
+}
@@ -0,0 +1,363 @@
+package de.knallisworld.aoc2024.support.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.bounded;
+import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.includeEmptyValues;
+import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.recordStats;
+import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.threadSafe;
+import static de.knallisworld.aoc2024.support.lang.MemoizationOptions.withDefault;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemoizationTest {
+
+	@Test
+	void emptyValues() {
+		final var loads = new AtomicInteger();
+		final Function<Integer, String> plain = Memoization.memoize(_ -> {
+			loads.incrementAndGet();
+			return null;
+		}, withDefault());
+		plain.apply(1);
+		plain.apply(1);
+		assertThat(loads)
+			.hasValue(2);
+
+		final Function<Integer, String> cached = Memoization.memoize(_ -> {
+			loads.incrementAndGet();
+			return null;
+		}, includeEmptyValues());
+		cached.apply(1);
+		cached.apply(1);
+		assertThat(loads)
+			.hasValue(3);
+	}
+
+	@Test
+	void nullInput() {
+		final Consumer<MemoizationOptions.MemoizationOptionsBuilder> threadSafeBounded = o -> {
+			threadSafe().accept(o);
+			bounded(2, EvictionPolicy.TINY_LFU).accept(o);
+		};
+		for (final var configurer : List.of(withDefault(), threadSafe(), threadSafeBounded)) {
+			final var loads = new AtomicInteger();
+			final Function<Integer, String> f = Memoization.memoize(n -> {
+				loads.incrementAndGet();
+				return String.valueOf(n);
+			}, configurer);
+			assertThat(f.apply(null))
+				.isEqualTo("null");
+			assertThat(f.apply(null))
+				.isEqualTo("null");
+			assertThat(loads)
+				.hasValue(1);
+		}
+	}
+
+	@Test
+	void recursive() {
+		for (final var configurer : List.of(withDefault(), threadSafe())) {
+			final var loads = new AtomicInteger();
+			final Function<Integer, BigInteger> fib = Memoization.memoizeRecursive((self, n) -> {
+				loads.incrementAndGet();
+				return n < 2 ? BigInteger.valueOf(n) : self.apply(n - 1).add(self.apply(n - 2));
+			}, configurer);
+			assertThat(fib.apply(90))
+				.isEqualTo(new BigInteger("2880067194370816120"));
+			assertThat(loads)
+				.hasValue(91);
+		}
+	}
+
+	@Test
+	void recursiveFromParallelStream() {
+		final var loads = new AtomicInteger();
+		final Function<Integer, Long> steps = Memoization.memoizeRecursive((self, n) -> {
+			loads.incrementAndGet();
+			// collatz steps, recursion shared across many starting values
+			return n == 1 ? 0L : 1 + self.apply(n % 2 == 0 ? n / 2 : 3 * n + 1);
+		}, threadSafe());
+		final var total = IntStream.rangeClosed(1, 10_000)
+								   .parallel()
+								   .mapToLong(steps::apply)
+								   .sum();
+		assertThat(total)
+			.isEqualTo(IntStream.rangeClosed(1, 10_000).mapToLong(MemoizationTest::collatz).sum());
+		// each value loaded exactly once
+		final var distinct = IntStream.rangeClosed(1, 10_000)
+									  .flatMap(MemoizationTest::trajectory)
+									  .distinct()
+									  .count();
+		assertThat(loads.get())
+			.isEqualTo((int) distinct);
+	}
+
+	@Test
+	void singleFlight() throws InterruptedException {
+		final var loads = new AtomicInteger();
+		final var started = new CountDownLatch(1);
+		final var release = new CountDownLatch(1);
+		final Function<Integer, Integer> slow = Memoization.memoize(n -> {
+			loads.incrementAndGet();
+			started.countDown();
+			try {
+				release.await();
+			} catch (final InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+			return n * 2;
+		}, threadSafe());
+		final var results = new int[8];
+		final var threads = IntStream.range(0, results.length)
+									 .mapToObj(i -> Thread.ofVirtual().start(() -> results[i] = slow.apply(21)))
+									 .toList();
+		started.await();
+		Thread.sleep(50);
+		release.countDown();
+		for (final var thread : threads) {
+			thread.join();
+		}
+		assertThat(loads)
+			.hasValue(1);
+		assertThat(results)
+			.containsOnly(42);
+	}
+
+	@Test
+	void failuresAreNotCached() {
+		final var loads = new AtomicInteger();
+		final Function<Integer, Integer> flaky = Memoization.memoize(n -> {
+			if (loads.incrementAndGet() == 1) {
+				throw new IllegalArgumentException("first");
+			}
+			return n;
+		}, threadSafe());
+		assertThatThrownBy(() -> flaky.apply(1))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThat(flaky.apply(1))
+			.isEqualTo(1);
+	}
+
+	@Test
+	void recursionOnSameKey() {
+		final Function<Integer, Integer> cyclic = Memoization.memoizeRecursive(
+			(self, n) -> self.apply(n),
+			threadSafe()
+		);
+		assertThatThrownBy(() -> cyclic.apply(1))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void boundedLru() {
+		final var loads = new AtomicInteger();
+		final Function<Integer, Integer> f = Memoization.memoize(n -> {
+			loads.incrementAndGet();
+			return n;
+		}, bounded(2, EvictionPolicy.LRU));
+		f.apply(1);
+		f.apply(2);
+		f.apply(1);
+		f.apply(3); // evicts 2
+		f.apply(1);
+		assertThat(loads)
+			.hasValue(3);
+		f.apply(2);
+		assertThat(loads)
+			.hasValue(4);
+	}
+
+	@Test
+	void boundedLfu() {
+		final var loads = new AtomicInteger();
+		final Function<Integer, Integer> f = Memoization.memoize(n -> {
+			loads.incrementAndGet();
+			return n;
+		}, bounded(2, EvictionPolicy.LFU));
+		f.apply(1);
+		f.apply(1);
+		f.apply(2);
+		f.apply(3); // evicts 2, the least frequent
+		f.apply(1);
+		f.apply(3);
+		assertThat(loads)
+			.hasValue(3);
+		f.apply(2);
+		assertThat(loads)
+			.hasValue(4);
+	}
+
+	@Test
+	void boundedTinyLfuKeepsHotKeysAgainstScans() {
+		assertThat(hotKeyMissesWithScan(EvictionPolicy.LRU))
+			.isGreaterThan(1000);
+		assertThat(hotKeyMissesWithScan(EvictionPolicy.TINY_LFU))
+			.isLessThan(500);
+	}
+
+	/**
+	 * 50 hot keys, requested again and again, interleaved with a scan of one-off keys that would push them out of
+	 * an LRU of 100.
+	 */
+	private static int hotKeyMissesWithScan(final EvictionPolicy policy) {
+		final var misses = new AtomicInteger();
+		final Function<Integer, Integer> f = Memoization.memoize(n -> {
+			if (n < 50) {
+				misses.incrementAndGet();
+			}
+			return n;
+		}, bounded(100, policy));
+		for (var i = 0; i < 40_000; i++) {
+			f.apply(i % 4 == 0 ? (i / 4) % 50 : 1000 + i);
+		}
+		return misses.get();
+	}
+
+	@Test
+	void boundedThreadSafe() {
+		final Function<Integer, Integer> f = Memoization.memoize(n -> n * 2, o -> {
+			bounded(64, EvictionPolicy.TINY_LFU).accept(o);
+			threadSafe().accept(o);
+		});
+		assertThat(IntStream.range(0, 100_000).parallel().map(n -> f.apply(n % 500)).asLongStream().sum())
+			.isEqualTo(IntStream.range(0, 100_000).mapToLong(n -> (n % 500) * 2L).sum());
+	}
+
+	@Test
+	void stats() {
+		final var f = Memoization.<Integer, Integer>memoize0(
+			n -> Optional.of(n),
+			bounded(2, EvictionPolicy.LRU).andThen(recordStats("test"))
+		);
+		f.apply(1);
+		f.apply(1);
+		f.apply(2);
+		f.apply(3);
+		final var stats = f.stats();
+		assertThat(stats.name())
+			.isEqualTo("test");
+		assertThat(stats.hits())
+			.isEqualTo(1);
+		assertThat(stats.misses())
+			.isEqualTo(3);
+		assertThat(stats.loads())
+			.isEqualTo(3);
+		assertThat(stats.size())
+			.isEqualTo(2);
+		assertThat(stats.evictions())
+			.isEqualTo(1);
+		assertThat(stats.hitRate())
+			.isEqualTo(0.25);
+		assertThat(Memoization.drainStats())
+			.contains(stats);
+		assertThat(Memoization.stats())
+			.isEmpty();
+	}
+
+	@Test
+	void statsDoNotKeepTheFunction() throws InterruptedException {
+		var f = Memoization.<Integer, Integer>memoize0(Optional::of, recordStats("collectable"));
+		f.apply(1);
+		final var reference = new WeakReference<>(f);
+		f = null;
+		for (var i = 0; i < 50 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertThat(reference.get())
+			.isNull();
+		// the stats outlive the function
+		assertThat(Memoization.drainStats())
+			.filteredOn(stats -> "collectable".equals(stats.name()))
+			.singleElement()
+			.satisfies(stats -> assertThat(stats.loads()).isEqualTo(1))
+			.satisfies(stats -> assertThat(stats.size()).isEqualTo(1));
+	}
+
+	@Test
+	void asyncSingleFlight() {
+		final var loads = new AtomicInteger();
+		final var release = new CompletableFuture<Void>();
+		final Function<Integer, CompletableFuture<Integer>> f = Memoization.memoizeAsync(n -> {
+			loads.incrementAndGet();
+			return release.thenApply(_ -> n * 2);
+		});
+		final var futures = IntStream.range(0, 8)
+									 .mapToObj(_ -> f.apply(21))
+									 .toList();
+		// a caller cancelling its future does not affect the others
+		futures.getFirst().cancel(true);
+		release.complete(null);
+		assertThat(futures.subList(1, futures.size()).stream().map(CompletableFuture::join))
+			.containsOnly(42);
+		assertThat(f.apply(21).join())
+			.isEqualTo(42);
+		assertThat(loads)
+			.hasValue(1);
+	}
+
+	@Test
+	void asyncFailuresAreNotCached() {
+		final var loads = new AtomicInteger();
+		final Function<Integer, CompletableFuture<Integer>> f = Memoization.memoizeAsync(n -> {
+			if (loads.incrementAndGet() == 1) {
+				return CompletableFuture.failedFuture(new IllegalArgumentException("first"));
+			}
+			return CompletableFuture.completedFuture(n);
+		});
+		assertThatThrownBy(() -> f.apply(1).join())
+			.isInstanceOf(CompletionException.class)
+			.hasCauseInstanceOf(IllegalArgumentException.class);
+		assertThat(f.apply(1).join())
+			.isEqualTo(1);
+		assertThat(loads)
+			.hasValue(2);
+	}
+
+	@Test
+	void virtual() {
+		final var loads = new AtomicInteger();
+		final Function<Integer, CompletableFuture<Boolean>> f = Memoization.memoizeVirtual(_ -> {
+			loads.incrementAndGet();
+			return Thread.currentThread().isVirtual();
+		});
+		final var futures = IntStream.range(0, 100)
+									 .mapToObj(n -> f.apply(n % 10))
+									 .toList();
+		assertThat(futures.stream().map(CompletableFuture::join))
+			.containsOnly(true);
+		assertThat(loads)
+			.hasValue(10);
+	}
+
+	private static long collatz(final int start) {
+		var n = (long) start;
+		var steps = 0L;
+		while (n != 1) {
+			n = n % 2 == 0 ? n / 2 : 3 * n + 1;
+			steps++;
+		}
+		return steps;
+	}
+
+	private static IntStream trajectory(final int start) {
+		return IntStream.concat(
+			IntStream.iterate(start, n -> n != 1, n -> n % 2 == 0 ? n / 2 : 3 * n + 1),
+			IntStream.of(1)
+		);
+	}
+
+}
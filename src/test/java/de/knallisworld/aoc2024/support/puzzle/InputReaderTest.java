@@ -1,8 +1,12 @@
 package de.knallisworld.aoc2024.support.puzzle;
 
+import de.knallisworld.aoc2024.support.geo.grid2.ByteGrid;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class InputReaderTest {
 
@@ -35,4 +39,36 @@ class InputReaderTest {
 			.containsExactly(0, 1, 2, 3, 5, 8, 13, 21, 34);
 	}
 
+	@Test
+	void readInputByteGrid() {
+		final var grid = InputReader.readInputByteGrid(0, "part3");
+		assertThat(grid.getWidth())
+			.isEqualTo(3);
+		assertThat(grid.getHeight())
+			.isEqualTo(3);
+		assertThat(grid.get(2, 1))
+			.isEqualTo((byte) 'E');
+	}
+
+	@Test
+	void readInputByteGridDecoded() {
+		final var grid = InputReader.readInputByteGrid(0, "part3", ByteGrid.decodeTable(".#SE"));
+		assertThat(grid.array())
+			.containsExactly(1, 0, 2, 0, 0, 3, 1, 1, 0);
+	}
+
+	@Test
+	void toByteGrid() {
+		final var grid = InputReader.toByteGrid(ByteBuffer.wrap("ab\r\ncd".getBytes()), null);
+		assertThat(grid.toString((_, v) -> String.valueOf((char) v.byteValue())))
+			.isEqualTo("ab\ncd\n");
+		assertThatThrownBy(() -> InputReader.toByteGrid(ByteBuffer.wrap("ab\nc\n".getBytes()), null))
+			.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> InputReader.toByteGrid(ByteBuffer.wrap("ab\ncd\ne".getBytes()), null))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("row 2 does not have the width 2");
+		assertThat(InputReader.toByteGrid(ByteBuffer.wrap("ab\ncd\n\n".getBytes()), null).getHeight())
+			.isEqualTo(2);
+	}
+
 }